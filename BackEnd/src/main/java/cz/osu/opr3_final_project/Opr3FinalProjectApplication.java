@@ -2,8 +2,10 @@ package cz.osu.opr3_final_project;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class Opr3FinalProjectApplication {
     public static void main(String[] args) {
         SpringApplication.run(Opr3FinalProjectApplication.class, args);
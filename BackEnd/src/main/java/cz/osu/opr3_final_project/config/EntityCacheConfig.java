@@ -0,0 +1,62 @@
+package cz.osu.opr3_final_project.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import cz.osu.opr3_final_project.model.entities.Genre;
+import cz.osu.opr3_final_project.model.entities.Movie;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.time.Duration;
+import java.util.OptionalLong;
+
+/**
+ * Hibernate second-level cache regions, backed by Caffeine through JCache. Movies and genres never
+ * change once stored, so they are cached together with their genre links and credits. Comments are
+ * deliberately not cached; see {@link Movie#getComments()}.
+ */
+@Configuration
+public class EntityCacheConfig {
+
+    @Bean(destroyMethod = "close")
+    public CacheManager entityCacheManager(
+            @Value("${entity-cache.movie.max-size}") long movieMaxSize,
+            @Value("${entity-cache.genre.max-size}") long genreMaxSize,
+            @Value("${entity-cache.expire-after}") Duration expireAfter) {
+
+        CacheManager cacheManager = Caching
+                .getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager();
+
+        createRegion(cacheManager, Movie.class.getName(), movieMaxSize, expireAfter);
+        createRegion(cacheManager, Movie.class.getName() + ".genres", movieMaxSize, expireAfter);
+        createRegion(cacheManager, Movie.class.getName() + ".directors", movieMaxSize, expireAfter);
+        createRegion(cacheManager, Movie.class.getName() + ".cast", movieMaxSize, expireAfter);
+        createRegion(cacheManager, Genre.class.getName(), genreMaxSize, expireAfter);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer entityCacheHibernateProperties(CacheManager entityCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, entityCacheManager);
+    }
+
+    private static void createRegion(CacheManager cacheManager, String region, long maxSize, Duration expireAfter) {
+        // The provider's cache manager outlives a Spring context, e.g. between test contexts.
+        if (cacheManager.getCache(region) != null) {
+            cacheManager.destroyCache(region);
+        }
+
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maxSize));
+        configuration.setExpireAfterWrite(OptionalLong.of(expireAfter.toNanos()));
+        configuration.setStoreByValue(false);
+        configuration.setStatisticsEnabled(true);
+        cacheManager.createCache(region, configuration);
+    }
+}
@@ -0,0 +1,79 @@
+package cz.osu.opr3_final_project.config;
+
+import cz.osu.opr3_final_project.utils.PriorityRateLimiter;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+
+@Configuration
+public class TmdbClientConfig {
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient tmdbHttpClient(
+            @Value("${tmdb.http.max-connections}") int maxConnections,
+            @Value("${tmdb.http.connect-timeout}") Duration connectTimeout,
+            @Value("${tmdb.http.response-timeout}") Duration responseTimeout,
+            @Value("${tmdb.http.connection-request-timeout}") Duration connectionRequestTimeout,
+            @Value("${tmdb.http.idle-evict-after}") Duration idleEvictAfter) {
+
+        // All requests go to a single host, so the per-route limit is the pool size.
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnections)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeout.toMillis()))
+                        .setSocketTimeout(Timeout.ofMilliseconds(responseTimeout.toMillis()))
+                        .build())
+                .build();
+
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.ofMilliseconds(connectionRequestTimeout.toMillis()))
+                .setResponseTimeout(Timeout.ofMilliseconds(responseTimeout.toMillis()))
+                .build();
+
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(idleEvictAfter.toMillis()))
+                .build();
+    }
+
+    @Bean
+    public RestTemplate tmdbRestTemplate(CloseableHttpClient tmdbHttpClient) {
+        return new RestTemplate(new HttpComponentsClientHttpRequestFactory(tmdbHttpClient));
+    }
+
+    @Bean
+    public PriorityRateLimiter tmdbRateLimiter(
+            @Value("${tmdb.rate-limit.requests-per-second}") double requestsPerSecond,
+            @Value("${tmdb.rate-limit.burst}") int burst) {
+        return new PriorityRateLimiter(requestsPerSecond, burst);
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor tmdbExecutor(
+            @Value("${tmdb.executor.pool-size}") int poolSize,
+            @Value("${tmdb.executor.queue-capacity}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("tmdb-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+}
@@ -10,14 +10,14 @@ import cz.osu.opr3_final_project.model.entities.User;
 import cz.osu.opr3_final_project.repositories.CommentRepository;
 import cz.osu.opr3_final_project.repositories.MovieRepository;
 import cz.osu.opr3_final_project.repositories.UserRepository;
+import cz.osu.opr3_final_project.services.CommentService;
 import cz.osu.opr3_final_project.services.MovieService;
+import cz.osu.opr3_final_project.services.ResourceVersionService;
 import cz.osu.opr3_final_project.services.TmdbService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.time.Instant;
-
 @RestController
 @RequestMapping("/api/comment")
 public class CommentController {
@@ -26,14 +26,18 @@ public class CommentController {
     private final MovieRepository movieRepository;
     private final TmdbService tmdbService;
     private final MovieService movieService;
+    private final CommentService commentService;
+    private final ResourceVersionService resourceVersions;
     private final ActivityLogger activityLogger;
 
-    public CommentController(CommentRepository commentRepository, UserRepository userRepository, MovieRepository movieRepository, TmdbService tmdbService, MovieService movieService, ActivityLogger activityLogger) {
+    public CommentController(CommentRepository commentRepository, UserRepository userRepository, MovieRepository movieRepository, TmdbService tmdbService, MovieService movieService, CommentService commentService, ResourceVersionService resourceVersions, ActivityLogger activityLogger) {
         this.commentRepository = commentRepository;
         this.userRepository = userRepository;
         this.movieRepository = movieRepository;
         this.tmdbService = tmdbService;
         this.movieService = movieService;
+        this.commentService = commentService;
+        this.resourceVersions = resourceVersions;
         this.activityLogger = activityLogger;
     }
 
@@ -45,12 +49,6 @@ public class CommentController {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).body("User not found");
             }
             Movie movie = movieRepository.findById(movieId).orElse(null);
-
-            Comment newComment = new Comment();
-            newComment.setContent(newCommentRequestDTO.content());
-            newComment.setUser(user);
-            newComment.setTimestamp(Instant.now());
-
             String movieTitle;
 
             if (movie == null) {
@@ -58,31 +56,17 @@ public class CommentController {
                 if (movieDetailsDTO == null) {
                     return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Movie not found in the TMDB database");
                 }
-                Movie movieToAdd = movieService.createMovieIfNotExists(movieDetailsDTO);
-
-                newComment.setMovie(movieToAdd);
-                commentRepository.save(newComment);
-
-                movieToAdd.getComments().add(newComment);
-                movieRepository.save(movieToAdd);
-
-                movieTitle = movieDetailsDTO.title();
+                movieTitle = movieService.createMovieIfNotExists(movieDetailsDTO).getTitle();
             } else {
-                newComment.setMovie(movie);
-                movie.getComments().add(newComment);
-                commentRepository.save(newComment);
-                movieRepository.save(movie);
-
                 movieTitle = movie.getTitle();
-
             }
 
-            user.getComments().add(newComment);
-            userRepository.save(user);
+            Comment newComment = commentService.addComment(user.getId(), movieId, newCommentRequestDTO.content());
 
             activityLogger.logComment(
                     user.getId(),
                     user.getUsername(),
+                    newComment.getId(),
                     movieId,
                     movieTitle,
                     newCommentRequestDTO.content()
@@ -90,11 +74,11 @@ public class CommentController {
 
             CommentDTO commentDTO = new CommentDTO(
                     newComment.getId(),
-                    newComment.getUser().getUsername(),
+                    user.getUsername(),
                     newComment.getContent(),
                     newComment.getTimestamp().toString(),
-                    newComment.getMovie().getTitle(),
-                    newComment.getMovie().getId()
+                    movieTitle,
+                    movieId
             );
 
             return ResponseEntity.status(HttpStatus.CREATED).body(commentDTO);
@@ -116,14 +100,13 @@ public class CommentController {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).body("You can only delete your own comments");
             }
 
-            activityLogger.logCommentDeletion(
-                    comment.getUser().getId(),
-                    comment.getUser().getUsername(),
-                    commentId,
-                    comment.getMovie().getTitle()
-            );
-
+            Movie movie = comment.getMovie();
+            String username = comment.getUser().getUsername();
             commentRepository.delete(comment);
+
+            activityLogger.logCommentDeletion(userId, username, commentId, movie.getId(), movie.getTitle());
+            resourceVersions.movieChanged(movie.getId());
+            resourceVersions.profileChanged(userId);
             return ResponseEntity.ok("Comment deleted successfully");
 
         } catch (Exception e) {
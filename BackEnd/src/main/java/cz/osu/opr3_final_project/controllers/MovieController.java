@@ -1,76 +1,120 @@
 package cz.osu.opr3_final_project.controllers;
 
-import cz.osu.opr3_final_project.dtos.CommentDTO;
 import cz.osu.opr3_final_project.dtos.tmdb.TmdbMovieDetailsDTO;
 import cz.osu.opr3_final_project.logging.ActivityLogger;
 import cz.osu.opr3_final_project.model.entities.*;
 import cz.osu.opr3_final_project.repositories.*;
+import cz.osu.opr3_final_project.services.CommentService;
+import cz.osu.opr3_final_project.services.LikeService;
 import cz.osu.opr3_final_project.services.MovieService;
+import cz.osu.opr3_final_project.services.MovieStatsService;
+import cz.osu.opr3_final_project.services.ResourceVersionService;
 import cz.osu.opr3_final_project.services.TmdbService;
+import cz.osu.opr3_final_project.services.TrendingService;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/movie")
 public class MovieController {
+    private static final int MAX_COMMENTS_PAGE_SIZE = 100;
+    private static final int MAX_STATS_IDS = 100;
+    private static final int MAX_TRENDING_LIMIT = 50;
+    private static final int MAX_LIKED_IDS = 100;
+
     private final MovieRepository movieRepository;
     private final TmdbService tmdbService;
     private final MovieService movieService;
+    private final CommentService commentService;
+    private final MovieStatsService movieStatsService;
+    private final TrendingService trendingService;
+    private final LikeService likeService;
     private final UserRepository userRepository;
+    private final ResourceVersionService resourceVersions;
     private final ActivityLogger activityLogger;
 
-    public MovieController(MovieRepository movieRepository, TmdbService tmdbService, MovieService movieService, UserRepository userRepository, ActivityLogger activityLogger) {
+    public MovieController(MovieRepository movieRepository, TmdbService tmdbService, MovieService movieService, CommentService commentService, MovieStatsService movieStatsService, TrendingService trendingService, LikeService likeService, UserRepository userRepository, ResourceVersionService resourceVersions, ActivityLogger activityLogger) {
         this.movieRepository = movieRepository;
         this.tmdbService = tmdbService;
         this.movieService = movieService;
+        this.commentService = commentService;
+        this.movieStatsService = movieStatsService;
+        this.trendingService = trendingService;
+        this.likeService = likeService;
         this.userRepository = userRepository;
+        this.resourceVersions = resourceVersions;
         this.activityLogger = activityLogger;
     }
 
+    @GetMapping("/trending")
+    public ResponseEntity<?> getTrendingMovies(@RequestParam(required = false, defaultValue = "10") int limit) {
+        if (limit < 1 || limit > MAX_TRENDING_LIMIT) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body("Limit must be between 1 and " + MAX_TRENDING_LIMIT);
+        }
+
+        try {
+            return ResponseEntity.ok(trendingService.getTrendingMovies(limit));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Failed to get trending movies: " + e.getMessage());
+        }
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<?> getMovieStats(@RequestParam List<Long> ids) {
+        if (ids.isEmpty() || ids.size() > MAX_STATS_IDS) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body("Between 1 and " + MAX_STATS_IDS + " movie ids are required");
+        }
+
+        try {
+            return ResponseEntity.ok(movieStatsService.getStats(ids).values());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Failed to get movie stats: " + e.getMessage());
+        }
+    }
+
     @GetMapping("/{ID}")
-    public ResponseEntity<?> getMovieById(@PathVariable Long ID) {
+    public ResponseEntity<?> getMovieById(
+            @PathVariable Long ID,
+            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
         try {
-            TmdbMovieDetailsDTO movieDTOToReturn;
-            Movie movieToReturn = movieRepository.findById(ID).orElse(null);
+            // Read before loading anything, so the body stored under it can only be newer.
+            String eTag = resourceVersions.movieETag(ID);
+            if (resourceVersions.matches(ifNoneMatch, eTag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(CacheControl.noCache()).build();
+            }
 
-            if (movieToReturn == null) {
-                movieDTOToReturn = tmdbService.getMovieDetails(ID);
-                if (movieDTOToReturn == null) {
-                    return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Movie not found");
+            byte[] body = resourceVersions.getCachedBody(eTag);
+            if (body == null) {
+                TmdbMovieDetailsDTO storedMovie = movieService.getMovieDetails(ID);
+                if (storedMovie != null) {
+                    body = resourceVersions.cacheBody(eTag, storedMovie);
                 }
-            } else {
-                List<String> genres = movieToReturn.getGenres() != null
-                        ? movieToReturn.getGenres().stream().map(Genre::getName).collect(Collectors.toList())
-                        : new ArrayList<>();
-
-                List<CommentDTO> comments = movieToReturn.getComments() != null
-                        ? movieToReturn.getComments().stream()
-                        .map(comment -> new CommentDTO(
-                                comment.getId(),
-                                comment.getUser().getUsername(),
-                                comment.getContent(),
-                                comment.getTimestamp().toString(),
-                                comment.getMovie().getTitle(),
-                                comment.getMovie().getId()
-                        )).toList()
-                        : new ArrayList<>();
-
-                movieDTOToReturn = new TmdbMovieDetailsDTO(
-                        movieToReturn.getId(),
-                        movieToReturn.getTitle(),
-                        movieToReturn.getReleaseDate(),
-                        movieToReturn.getDescription(),
-                        genres,
-                        comments,
-                        movieToReturn.getPosterUrl()
-                );
+            }
+            if (body != null) {
+                return ResponseEntity.ok()
+                        .eTag(eTag)
+                        .cacheControl(CacheControl.noCache())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(body);
             }
 
+            TmdbMovieDetailsDTO movieDTOToReturn = tmdbService.getMovieDetails(ID);
+            if (movieDTOToReturn == null) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Movie not found");
+            }
+
+            // Details and credits arrive in one TMDB call; keep them so repeat views are served locally.
+            movieService.createMovieIfNotExists(movieDTOToReturn);
+
             return ResponseEntity.ok(movieDTOToReturn);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -79,25 +123,52 @@ public class MovieController {
     }
 
 
-    @GetMapping("/{movieId}/isLiked")
-    public ResponseEntity<?> isMovieLikedByUser(@PathVariable Long movieId, @RequestParam Long userId) {
+    @GetMapping("/{movieId}/comments")
+    public ResponseEntity<?> getMovieComments(
+            @PathVariable Long movieId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false, defaultValue = "20") int size) {
+
+        if (size < 1 || size > MAX_COMMENTS_PAGE_SIZE) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body("Page size must be between 1 and " + MAX_COMMENTS_PAGE_SIZE);
+        }
+
         try {
-            User user = userRepository.findById(userId).orElse(null);
-            if (user == null) {
-                return ResponseEntity.status(HttpStatus.NOT_FOUND).body("User not found");
-            }
+            return ResponseEntity.ok(commentService.getCommentPage(movieId, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Failed to get comments: " + e.getMessage());
+        }
+    }
 
-            List<Movie> movies = user.getFavouriteMovies();
-            if (movies == null) {
-                return ResponseEntity.ok(false);
+    @GetMapping("/isLiked")
+    public ResponseEntity<?> areMoviesLikedByUser(@RequestParam Long userId, @RequestParam List<Long> ids) {
+        if (ids.isEmpty() || ids.size() > MAX_LIKED_IDS) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body("Between 1 and " + MAX_LIKED_IDS + " movie ids are required");
+        }
+
+        try {
+            if (!userRepository.existsById(userId)) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body("User not found");
             }
+            return ResponseEntity.ok(likeService.areLiked(userId, ids));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Failed to check if movies are liked: " + e.getMessage());
+        }
+    }
 
-            for (Movie movie : movies) {
-                if (movie.getId().equals(movieId)) {
-                    return ResponseEntity.ok(true);
-                }
+    @GetMapping("/{movieId}/isLiked")
+    public ResponseEntity<?> isMovieLikedByUser(@PathVariable Long movieId, @RequestParam Long userId) {
+        try {
+            if (!userRepository.existsById(userId)) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body("User not found");
             }
-            return ResponseEntity.ok(false);
+            return ResponseEntity.ok(likeService.isLiked(userId, movieId));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Failed to check if movie is liked: " + e.getMessage());
@@ -116,54 +187,32 @@ public class MovieController {
             }
 
             Movie movie = movieRepository.findById(movieId).orElse(null);
-            String movieTitle;
 
             if (movie == null) {
+                if (!currentMovieLikedStatus) {
+                    // A movie that was never stored cannot have been liked.
+                    return ResponseEntity.ok("Liked status changed successfully");
+                }
+
                 TmdbMovieDetailsDTO movieDetailsDTO = tmdbService.getMovieDetails(movieId);
                 if (movieDetailsDTO == null) {
                     return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Movie not found");
                 }
-                Movie movieToAdd = movieService.createMovieIfNotExists(movieDetailsDTO);
-                user.getFavouriteMovies().add(movieToAdd);
-                userRepository.save(user);
+                movie = movieService.createMovieIfNotExists(movieDetailsDTO);
+            }
 
-                movieTitle = movieDetailsDTO.title();
+            boolean changed = currentMovieLikedStatus
+                    ? likeService.like(userId, movieId)
+                    : likeService.unlike(userId, movieId);
 
+            if (changed) {
                 activityLogger.logMovieLike(
                         user.getId(),
                         user.getUsername(),
                         movieId,
-                        movieTitle,
-                        true
+                        movie.getTitle(),
+                        currentMovieLikedStatus
                 );
-            } else {
-
-                movieTitle = movie.getTitle();
-
-                if (currentMovieLikedStatus) {
-                    user.getFavouriteMovies().add(movie);
-                    userRepository.save(user);
-
-
-                    activityLogger.logMovieLike(
-                            user.getId(),
-                            user.getUsername(),
-                            movieId,
-                            movieTitle,
-                            true
-                    );
-                } else {
-                    user.getFavouriteMovies().remove(movie);
-                    userRepository.save(user);
-
-                    activityLogger.logMovieLike(
-                            user.getId(),
-                            user.getUsername(),
-                            movieId,
-                            movieTitle,
-                            false
-                    );
-                }
             }
 
             return ResponseEntity.ok("Liked status changed successfully");
@@ -0,0 +1,97 @@
+package cz.osu.opr3_final_project.controllers;
+
+import cz.osu.opr3_final_project.services.PosterCacheService;
+import cz.osu.opr3_final_project.services.PosterCacheService.CachedPoster;
+import cz.osu.opr3_final_project.services.ResourceVersionService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+@RestController
+@RequestMapping("/api/poster")
+public class PosterController {
+
+    private static final Set<String> SIZES = Set.of("w92", "w154", "w185", "w342", "w500", "w780", "original");
+    private static final Pattern FILE_NAME = Pattern.compile("[A-Za-z0-9_-]+\\.(jpg|png|webp)");
+
+    // Tomcat request attributes for sending a file straight from the kernel (sendfile).
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final PosterCacheService posterCacheService;
+    private final ResourceVersionService resourceVersions;
+
+    public PosterController(PosterCacheService posterCacheService, ResourceVersionService resourceVersions) {
+        this.posterCacheService = posterCacheService;
+        this.resourceVersions = resourceVersions;
+    }
+
+    @GetMapping("/{size}/{fileName:.+}")
+    public ResponseEntity<?> getPoster(
+            @PathVariable String size,
+            @PathVariable String fileName,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            HttpServletRequest request,
+            HttpServletResponse response) {
+
+        if (!SIZES.contains(size) || !FILE_NAME.matcher(fileName).matches()) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid poster size or file name");
+        }
+
+        try {
+            CachedPoster poster = posterCacheService.getPoster(size, fileName);
+            if (poster == null) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Poster not found");
+            }
+
+            CacheControl cacheControl = CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable();
+            if (resourceVersions.matches(ifNoneMatch, poster.etag())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(poster.etag())
+                        .cacheControl(cacheControl)
+                        .build();
+            }
+
+            response.setStatus(HttpServletResponse.SC_OK);
+            response.setContentType(poster.contentType().toString());
+            response.setContentLengthLong(poster.length());
+            response.setHeader(HttpHeaders.ETAG, poster.etag());
+            response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+
+            if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+                request.setAttribute(SENDFILE_FILENAME, poster.file().toString());
+                request.setAttribute(SENDFILE_START, 0L);
+                request.setAttribute(SENDFILE_END, poster.length());
+            } else {
+                try (FileChannel file = FileChannel.open(poster.file(), StandardOpenOption.READ);
+                     OutputStream output = response.getOutputStream()) {
+                    WritableByteChannel target = Channels.newChannel(output);
+                    long position = 0;
+                    while (position < poster.length()) {
+                        position += file.transferTo(position, poster.length() - position, target);
+                    }
+                }
+            }
+            return null;
+
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_GATEWAY)
+                    .body("Failed to load poster: " + e.getMessage());
+        }
+    }
+}
@@ -2,7 +2,7 @@ package cz.osu.opr3_final_project.controllers;
 
 import cz.osu.opr3_final_project.dtos.tmdb.TmdbMovieSearchDTO;
 import cz.osu.opr3_final_project.dtos.tmdb.TmdbSearchResultsDTO;
-import cz.osu.opr3_final_project.services.TmdbService;
+import cz.osu.opr3_final_project.services.MovieSearchService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -11,18 +11,31 @@ import org.springframework.web.bind.annotation.*;
 @RequestMapping("/api/search")
 public class SearchController {
 
-    private final TmdbService tmdbService;
+    private static final int MAX_PAGE = 500;
+    private static final int MAX_PAGE_SIZE = 100;
 
-    public SearchController(TmdbService tmdbService) {
-        this.tmdbService = tmdbService;
+    private final MovieSearchService movieSearchService;
+
+    public SearchController(MovieSearchService movieSearchService) {
+        this.movieSearchService = movieSearchService;
     }
 
     @GetMapping("/movies")
     public ResponseEntity<?> searchMovies(
-            @RequestParam(required = false, defaultValue = "") String query) {
+            @RequestParam(required = false, defaultValue = "") String query,
+            @RequestParam(required = false, defaultValue = "1") int page,
+            @RequestParam(required = false, defaultValue = "20") int size) {
+
+        if (page < 1 || page > MAX_PAGE) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Page must be between 1 and " + MAX_PAGE);
+        }
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
 
         try {
-            TmdbSearchResultsDTO<TmdbMovieSearchDTO> results = tmdbService.searchMovies(query);
+            TmdbSearchResultsDTO<TmdbMovieSearchDTO> results = movieSearchService.searchMovies(query, page, size);
 
             if (results == null) {
                 return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
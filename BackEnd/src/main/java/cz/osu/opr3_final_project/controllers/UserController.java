@@ -4,9 +4,12 @@ import cz.osu.opr3_final_project.dtos.*;
 import cz.osu.opr3_final_project.logging.AuthLogger;
 import cz.osu.opr3_final_project.model.entities.User;
 import cz.osu.opr3_final_project.repositories.UserRepository;
+import cz.osu.opr3_final_project.services.ResourceVersionService;
 import cz.osu.opr3_final_project.services.UserService;
 import cz.osu.opr3_final_project.utils.JwtUtil;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -14,15 +17,18 @@ import java.util.NoSuchElementException;
 
 @RestController
 public class UserController {
+    private static final int MAX_PROFILE_PAGE_SIZE = 100;
 
     private final UserRepository userRepository;
     private final UserService userService;
+    private final ResourceVersionService resourceVersions;
     private final JwtUtil jwtUtil;
     private final AuthLogger authLogger;
 
-    public UserController(UserRepository userRepository, UserService userService, JwtUtil jwtUtil, AuthLogger authLogger) {
+    public UserController(UserRepository userRepository, UserService userService, ResourceVersionService resourceVersions, JwtUtil jwtUtil, AuthLogger authLogger) {
         this.userRepository = userRepository;
         this.userService = userService;
+        this.resourceVersions = resourceVersions;
         this.jwtUtil = jwtUtil;
         this.authLogger = authLogger;
     }
@@ -162,7 +168,9 @@ public class UserController {
     }
 
     @GetMapping("/profile")
-    public ResponseEntity<?> getUserProfile(@RequestHeader("Authorization") String authHeader) {
+    public ResponseEntity<?> getUserProfile(
+            @RequestHeader("Authorization") String authHeader,
+            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
         try {
             if (authHeader == null || !authHeader.startsWith("Bearer ")) {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Missing or invalid Authorization header");
@@ -171,8 +179,29 @@ public class UserController {
             String token = authHeader.substring(7);
             Long userId = jwtUtil.extractUserId(token);
 
-            UserProfileDTO profile = userService.getUserProfile(userId);
-            return ResponseEntity.ok(profile);
+            // The profile depends on who asks, so it may only be cached privately and must be revalidated.
+            CacheControl cacheControl = CacheControl.noCache().cachePrivate();
+            String eTag = resourceVersions.profileETag(userId);
+            if (resourceVersions.matches(ifNoneMatch, eTag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(eTag)
+                        .cacheControl(cacheControl)
+                        .varyBy("Authorization")
+                        .build();
+            }
+
+            byte[] body = resourceVersions.getCachedBody(eTag);
+            if (body == null) {
+                UserProfileDTO profile = userService.getUserProfile(userId);
+                body = resourceVersions.cacheBody(eTag, profile);
+            }
+
+            return ResponseEntity.ok()
+                    .eTag(eTag)
+                    .cacheControl(cacheControl)
+                    .varyBy("Authorization")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(body);
 
         } catch (RuntimeException e) {
             if (e.getMessage() != null && e.getMessage().contains("User not found")) {
@@ -185,6 +214,66 @@ public class UserController {
         }
     }
 
+    @GetMapping("/profile/favorites")
+    public ResponseEntity<?> getFavoriteMovies(
+            @RequestHeader("Authorization") String authHeader,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false, defaultValue = "20") int size) {
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Missing or invalid Authorization header");
+        }
+        if (size < 1 || size > MAX_PROFILE_PAGE_SIZE) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body("Page size must be between 1 and " + MAX_PROFILE_PAGE_SIZE);
+        }
+
+        Long userId;
+        try {
+            userId = jwtUtil.extractUserId(authHeader.substring(7));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid token");
+        }
+
+        try {
+            return ResponseEntity.ok(userService.getFavoriteMoviePage(userId, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Failed to get favorite movies: " + e.getMessage());
+        }
+    }
+
+    @GetMapping("/profile/comments")
+    public ResponseEntity<?> getComments(
+            @RequestHeader("Authorization") String authHeader,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false, defaultValue = "20") int size) {
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Missing or invalid Authorization header");
+        }
+        if (size < 1 || size > MAX_PROFILE_PAGE_SIZE) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body("Page size must be between 1 and " + MAX_PROFILE_PAGE_SIZE);
+        }
+
+        Long userId;
+        try {
+            userId = jwtUtil.extractUserId(authHeader.substring(7));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid token");
+        }
+
+        try {
+            return ResponseEntity.ok(userService.getCommentPage(userId, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Failed to get comments: " + e.getMessage());
+        }
+    }
+
     @PutMapping("/profile/username")
     public ResponseEntity<?> updateUsername(
             @RequestHeader("Authorization") String authHeader,
@@ -212,6 +301,10 @@ public class UserController {
             user.setUsername(updateUsernameDTO.newUsername());
             userRepository.save(user);
 
+            // The username is shown in the profile and next to each of the user's comments.
+            resourceVersions.profileChanged(userId);
+            userService.findCommentedMovieIds(userId).forEach(resourceVersions::movieChanged);
+
             String newToken = jwtUtil.generateToken(user.getUsername(), user.getId());
 
             AuthResponseDTO response = new AuthResponseDTO(
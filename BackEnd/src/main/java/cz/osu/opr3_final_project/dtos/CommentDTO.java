@@ -1,6 +1,7 @@
 package cz.osu.opr3_final_project.dtos;
 
 
+import java.time.Instant;
 
 public record CommentDTO(
         Long id,
@@ -9,4 +10,9 @@ public record CommentDTO(
         String timestamp,
         String movieTitle,
         Long movieId
-) {}
\ No newline at end of file
+) {
+    // Used by JPQL constructor expressions, which cannot format the timestamp themselves.
+    public CommentDTO(Long id, String username, String content, Instant timestamp, String movieTitle, Long movieId) {
+        this(id, username, content, timestamp != null ? timestamp.toString() : null, movieTitle, movieId);
+    }
+}
@@ -0,0 +1,9 @@
+package cz.osu.opr3_final_project.dtos;
+
+import java.util.List;
+
+public record CommentPageDTO(
+        List<CommentDTO> comments,
+        long totalCount,
+        String nextCursor
+) {}
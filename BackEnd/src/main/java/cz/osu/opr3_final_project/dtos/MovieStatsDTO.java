@@ -0,0 +1,7 @@
+package cz.osu.opr3_final_project.dtos;
+
+public record MovieStatsDTO(
+        Long movieId,
+        long likeCount,
+        long commentCount
+) {}
@@ -0,0 +1,8 @@
+package cz.osu.opr3_final_project.dtos;
+
+public record TrendingMovieDTO(
+        Long id,
+        String title,
+        String posterUrl,
+        long score
+) {}
@@ -5,8 +5,10 @@ import java.util.List;
 public record UserProfileDTO(
         Long id,
         String username,
-        int totalFavorites,
-        int totalComments,
+        long totalFavorites,
+        long totalComments,
         List<MovieSummaryDTO> favoriteMovies,
-        List<CommentDTO> comments
-) {}
\ No newline at end of file
+        String nextFavoritesCursor,
+        List<CommentDTO> comments,
+        String nextCommentsCursor
+) {}
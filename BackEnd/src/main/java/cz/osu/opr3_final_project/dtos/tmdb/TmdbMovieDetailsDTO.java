@@ -12,6 +12,10 @@ public record TmdbMovieDetailsDTO (
         String description,
         List<String> genre,
         List<CommentDTO> comments,
-        String posterUrl
+        String posterUrl,
+        List<TmdbMovieDetailsDirectorDTO> directors,
+        List<TmdbMovieDetailsActorDTO> actors,
+        Long commentCount,
+        String nextCommentsCursor
 ) {
 }
@@ -2,8 +2,10 @@ package cz.osu.opr3_final_project.logging;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 
@@ -13,6 +15,11 @@ public class ActivityLogger {
     private static final Logger logger = LoggerFactory.getLogger(ActivityLogger.class);
     private static final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ActivityLogger(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
 
     public void logMovieLike(Long userId, String username, Long movieId, String movieTitle, boolean isLiked) {
         String timestamp = LocalDateTime.now().format(formatter);
@@ -24,9 +31,12 @@ public class ActivityLogger {
         );
 
         logger.info(logMessage);
+
+        MovieActivityEvent.Type type = isLiked ? MovieActivityEvent.Type.LIKE : MovieActivityEvent.Type.UNLIKE;
+        eventPublisher.publishEvent(new MovieActivityEvent(movieId, type, userId, Instant.now()));
     }
 
-    public void logComment(Long userId, String username, Long movieId, String movieTitle, String commentContent) {
+    public void logComment(Long userId, String username, Long commentId, Long movieId, String movieTitle, String commentContent) {
         String timestamp = LocalDateTime.now().format(formatter);
 
         String logMessage = String.format(
@@ -35,9 +45,11 @@ public class ActivityLogger {
         );
 
         logger.info(logMessage);
+
+        eventPublisher.publishEvent(new MovieActivityEvent(movieId, MovieActivityEvent.Type.COMMENT, commentId, Instant.now()));
     }
 
-    public void logCommentDeletion(Long userId, String username, Long commentId, String movieTitle) {
+    public void logCommentDeletion(Long userId, String username, Long commentId, Long movieId, String movieTitle) {
         String timestamp = LocalDateTime.now().format(formatter);
 
         String logMessage = String.format(
@@ -46,5 +58,7 @@ public class ActivityLogger {
         );
 
         logger.info(logMessage);
+
+        eventPublisher.publishEvent(new MovieActivityEvent(movieId, MovieActivityEvent.Type.COMMENT_DELETED, commentId, Instant.now()));
     }
 }
\ No newline at end of file
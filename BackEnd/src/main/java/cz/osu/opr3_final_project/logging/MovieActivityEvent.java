@@ -0,0 +1,13 @@
+package cz.osu.opr3_final_project.logging;
+
+import java.time.Instant;
+
+/**
+ * Published by {@link ActivityLogger} for every like, unlike, comment and comment deletion, so other
+ * components can react to user activity without being called from each controller. {@code sourceId}
+ * identifies the activity within the movie: the user for likes, the comment for comments.
+ */
+public record MovieActivityEvent(Long movieId, Type type, Long sourceId, Instant occurredAt) {
+
+    public enum Type { LIKE, UNLIKE, COMMENT, COMMENT_DELETED }
+}
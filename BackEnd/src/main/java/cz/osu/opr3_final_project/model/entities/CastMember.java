@@ -0,0 +1,24 @@
+package cz.osu.opr3_final_project.model.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Embeddable
+public class CastMember {
+    @Column(nullable = false)
+    private Long personId;
+
+    @Column(nullable = false)
+    private String name;
+
+    @Column
+    private String characterName;
+}
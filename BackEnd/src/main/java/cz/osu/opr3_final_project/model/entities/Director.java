@@ -0,0 +1,23 @@
+package cz.osu.opr3_final_project.model.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+@Embeddable
+public class Director {
+    @Column(nullable = false)
+    private Long personId;
+
+    @Column(nullable = false)
+    private String name;
+}
@@ -6,6 +6,8 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 
 @Getter
@@ -14,9 +16,11 @@ import lombok.Setter;
 @AllArgsConstructor
 @Entity
 @Table(name = "genre")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Genre {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "genre_id_seq")
+    @SequenceGenerator(name = "genre_id_seq", sequenceName = "genre_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, unique = true)
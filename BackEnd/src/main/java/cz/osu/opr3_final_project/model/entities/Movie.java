@@ -5,9 +5,13 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.util.ArrayList;
 
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 @Getter
 @Setter
@@ -15,6 +19,7 @@ import java.util.List;
 @AllArgsConstructor
 @Entity
 @Table(name = "movies")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Movie {
     @Id
     @Column(unique = true, nullable = false)
@@ -29,18 +34,35 @@ public class Movie {
     @Column
     private String description;
 
+    // Not in the second-level cache: comments are added through Comment.movie, which would leave a
+    // cached collection stale, so the list is always read from the database.
     @OneToMany(mappedBy = "movie", cascade = CascadeType.ALL)
     private List<Comment> comments = new ArrayList<>();
 
+    // A set rather than a bag: genres are fetched together with the credits, and a bag would take one
+    // element per joined row.
     @ManyToMany(fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @JoinTable(
             name = "movies_genre",
             joinColumns = @JoinColumn(name = "movie_id"),
             inverseJoinColumns = @JoinColumn(name = "genre_id")
     )
-    private List<Genre> genres = new ArrayList<>();
+    @OrderBy("name")
+    private Set<Genre> genres = new LinkedHashSet<>();
 
     @Column
     private String posterUrl;
 
+    @ElementCollection
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+    @CollectionTable(name = "movie_directors", joinColumns = @JoinColumn(name = "movie_id"))
+    private Set<Director> directors = new LinkedHashSet<>();
+
+    @ElementCollection
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+    @CollectionTable(name = "movie_cast", joinColumns = @JoinColumn(name = "movie_id"))
+    @OrderColumn(name = "billing_order")
+    private List<CastMember> cast = new ArrayList<>();
+
 }
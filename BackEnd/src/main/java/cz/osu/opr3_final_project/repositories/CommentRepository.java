@@ -1,12 +1,58 @@
 package cz.osu.opr3_final_project.repositories;
 
+import cz.osu.opr3_final_project.dtos.CommentDTO;
 import cz.osu.opr3_final_project.model.entities.Comment;
 import cz.osu.opr3_final_project.model.entities.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
     Optional<Comment> findByUser(User UserID);
 
+    @Query("""
+            SELECT new cz.osu.opr3_final_project.dtos.CommentDTO(c.id, u.username, c.content, c.timestamp, m.title, m.id)
+            FROM Comment c JOIN c.user u JOIN c.movie m
+            WHERE m.id = :movieId
+            ORDER BY c.timestamp DESC, c.id DESC
+            """)
+    List<CommentDTO> findNewestCommentDTOs(@Param("movieId") Long movieId, Limit limit);
+
+    @Query("""
+            SELECT new cz.osu.opr3_final_project.dtos.CommentDTO(c.id, u.username, c.content, c.timestamp, m.title, m.id)
+            FROM Comment c JOIN c.user u JOIN c.movie m
+            WHERE m.id = :movieId AND (c.timestamp, c.id) < (:timestamp, :id)
+            ORDER BY c.timestamp DESC, c.id DESC
+            """)
+    List<CommentDTO> findCommentDTOsBefore(
+            @Param("movieId") Long movieId,
+            @Param("timestamp") Instant timestamp,
+            @Param("id") Long id,
+            Limit limit);
+
+    @Query("""
+            SELECT new cz.osu.opr3_final_project.dtos.CommentDTO(c.id, u.username, c.content, c.timestamp, m.title, m.id)
+            FROM Comment c JOIN c.user u JOIN c.movie m
+            WHERE u.id = :userId
+            ORDER BY c.timestamp DESC, c.id DESC
+            """)
+    List<CommentDTO> findNewestCommentDTOsByUser(@Param("userId") Long userId, Limit limit);
+
+    @Query("""
+            SELECT new cz.osu.opr3_final_project.dtos.CommentDTO(c.id, u.username, c.content, c.timestamp, m.title, m.id)
+            FROM Comment c JOIN c.user u JOIN c.movie m
+            WHERE u.id = :userId AND (c.timestamp, c.id) < (:timestamp, :id)
+            ORDER BY c.timestamp DESC, c.id DESC
+            """)
+    List<CommentDTO> findCommentDTOsByUserBefore(
+            @Param("userId") Long userId,
+            @Param("timestamp") Instant timestamp,
+            @Param("id") Long id,
+            Limit limit);
+
 }
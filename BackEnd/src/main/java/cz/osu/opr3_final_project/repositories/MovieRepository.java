@@ -1,9 +1,43 @@
 package cz.osu.opr3_final_project.repositories;
 
 import cz.osu.opr3_final_project.model.entities.Movie;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface MovieRepository extends JpaRepository<Movie, Long> {
+    /**
+     * Full-text search over title and description using the GIN-indexed search_vector column.
+     * Text relevance is scaled by how many likes and comments a movie has.
+     */
+    @Query(value = """
+            SELECT m.* FROM movies m
+            LEFT JOIN movie_stats s ON s.movie_id = m.id
+            WHERE m.search_vector @@ to_tsquery('simple', :query)
+            ORDER BY ts_rank(m.search_vector, to_tsquery('simple', :query))
+                     * ln(2 + COALESCE(s.like_count, 0) + COALESCE(s.comment_count, 0)) DESC,
+                     m.id
+            """,
+            countQuery = "SELECT count(*) FROM movies m WHERE m.search_vector @@ to_tsquery('simple', :query)",
+            nativeQuery = true)
+    Page<Movie> searchByText(@Param("query") String tsQuery, Pageable pageable);
+
+    /**
+     * Returns which of the given movies {@link #searchByText} finds for the query.
+     */
+    @Query(value = "SELECT m.id FROM movies m WHERE m.id IN (:ids) AND m.search_vector @@ to_tsquery('simple', :query)",
+            nativeQuery = true)
+    List<Long> findTextMatchIds(@Param("query") String tsQuery, @Param("ids") Collection<Long> ids);
+
+    @EntityGraph(attributePaths = {"genres", "directors", "cast"})
+    Optional<Movie> findWithDetailsById(Long id);
 }
@@ -0,0 +1,85 @@
+package cz.osu.opr3_final_project.services;
+
+import cz.osu.opr3_final_project.dtos.CommentDTO;
+import cz.osu.opr3_final_project.dtos.CommentPageDTO;
+import cz.osu.opr3_final_project.model.entities.Comment;
+import cz.osu.opr3_final_project.repositories.CommentRepository;
+import cz.osu.opr3_final_project.repositories.MovieRepository;
+import cz.osu.opr3_final_project.repositories.UserRepository;
+import cz.osu.opr3_final_project.utils.KeysetCursor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+
+@Service
+public class CommentService {
+
+    private final CommentRepository commentRepository;
+    private final MovieRepository movieRepository;
+    private final UserRepository userRepository;
+    private final MovieStatsService movieStatsService;
+    private final ResourceVersionService resourceVersions;
+    private final TransactionTemplate transactionTemplate;
+
+    public CommentService(
+            CommentRepository commentRepository,
+            MovieRepository movieRepository,
+            UserRepository userRepository,
+            MovieStatsService movieStatsService,
+            ResourceVersionService resourceVersions,
+            PlatformTransactionManager transactionManager) {
+        this.commentRepository = commentRepository;
+        this.movieRepository = movieRepository;
+        this.userRepository = userRepository;
+        this.movieStatsService = movieStatsService;
+        this.resourceVersions = resourceVersions;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Stores a new comment in one transaction. The comment is the owning side of both relations, so
+     * the movie and user are only referenced by id and the commit flushes a single insert.
+     */
+    public Comment addComment(Long userId, Long movieId, String content) {
+        Comment saved = transactionTemplate.execute(status -> {
+            Comment comment = new Comment();
+            comment.setUser(userRepository.getReferenceById(userId));
+            comment.setMovie(movieRepository.getReferenceById(movieId));
+            comment.setContent(content);
+            comment.setTimestamp(Instant.now());
+            return commentRepository.save(comment);
+        });
+
+        resourceVersions.movieChanged(movieId);
+        resourceVersions.profileChanged(userId);
+        return saved;
+    }
+
+    /**
+     * Returns up to {@code size} comments of a movie, newest first, starting after the given cursor
+     * (or from the newest comment when it is null), together with the movie's total comment count.
+     */
+    public CommentPageDTO getCommentPage(Long movieId, String cursor, int size) {
+        List<CommentDTO> comments;
+        if (cursor == null) {
+            comments = commentRepository.findNewestCommentDTOs(movieId, Limit.of(size + 1));
+        } else {
+            KeysetCursor position = KeysetCursor.decode(cursor);
+            comments = commentRepository.findCommentDTOsBefore(
+                    movieId, position.timestamp(), position.id(), Limit.of(size + 1));
+        }
+
+        String nextCursor = null;
+        if (comments.size() > size) {
+            comments = comments.subList(0, size);
+            CommentDTO last = comments.get(size - 1);
+            nextCursor = new KeysetCursor(Instant.parse(last.timestamp()), last.id()).encode();
+        }
+
+        return new CommentPageDTO(comments, movieStatsService.getStats(movieId).commentCount(), nextCursor);
+    }
+}
@@ -0,0 +1,107 @@
+package cz.osu.opr3_final_project.services;
+
+import cz.osu.opr3_final_project.model.entities.Genre;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * In-memory name to {@link Genre} lookup. The genre table is tiny and practically static, so it is
+ * read once and afterwards only unknown names go to the database, all of them in one upsert.
+ */
+@Service
+public class GenreDictionary {
+
+    private static final String SELECT_ALL_GENRES = "SELECT id, name FROM genre";
+    private static final String INSERT_GENRES = """
+            INSERT INTO genre (name)
+            SELECT UNNEST(?::varchar[])
+            ON CONFLICT (name) DO NOTHING
+            """;
+    private static final String SELECT_GENRES_BY_NAME = "SELECT id, name FROM genre WHERE name = ANY(?::varchar[])";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ConcurrentMap<String, Genre> genresByName = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    public GenreDictionary(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        // New genres are committed on their own, so a cached id never points to a rolled back row.
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (!loaded) {
+                jdbcTemplate.query(SELECT_ALL_GENRES, (RowCallbackHandler) resultSet -> put(
+                        resultSet.getLong("id"), resultSet.getString("name")));
+                loaded = true;
+            }
+        }
+    }
+
+    /**
+     * Returns the genres for the given names in their original order, creating the ones that do not
+     * exist yet. Blank and duplicate names are skipped.
+     */
+    public Map<String, Genre> resolve(Collection<String> names) {
+        load();
+
+        Map<String, Genre> genres = new LinkedHashMap<>();
+        Set<String> missingNames = new LinkedHashSet<>();
+        for (String name : names) {
+            if (name == null || name.trim().isEmpty() || genres.containsKey(name)) {
+                continue;
+            }
+            Genre genre = genresByName.get(name);
+            genres.put(name, genre);
+            if (genre == null) {
+                missingNames.add(name);
+            }
+        }
+
+        if (!missingNames.isEmpty()) {
+            insertMissing(missingNames);
+            genres.replaceAll((name, genre) -> genre != null ? genre : genresByName.get(name));
+        }
+        return genres;
+    }
+
+    private void insertMissing(Set<String> names) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Object[] nameArray = names.toArray();
+
+            jdbcTemplate.update(connection -> {
+                PreparedStatement statement = connection.prepareStatement(INSERT_GENRES);
+                statement.setArray(1, connection.createArrayOf("varchar", nameArray));
+                return statement;
+            });
+
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(SELECT_GENRES_BY_NAME);
+                statement.setArray(1, connection.createArrayOf("varchar", nameArray));
+                return statement;
+            }, (RowCallbackHandler) resultSet -> put(resultSet.getLong("id"), resultSet.getString("name")));
+        });
+    }
+
+    private void put(long id, String name) {
+        genresByName.putIfAbsent(name, new Genre(id, name));
+    }
+}
@@ -0,0 +1,256 @@
+package cz.osu.opr3_final_project.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import cz.osu.opr3_final_project.utils.WriteBehindBuffer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Answers "has this user liked these movies" straight from users_favourite_movies, without loading
+ * the user's favourites collection. When enabled, each active user's liked movie ids are also kept
+ * in memory as a sorted primitive array; the entry is dropped whenever the user's likes change.
+ * <p>
+ * In write-behind mode {@link #like} and {@link #unlike} only record the change in memory. Changes are
+ * written in batches on a timer, when enough have piled up and on shutdown; a toggle that reverts a
+ * pending one cancels it. Reads through this service see pending changes immediately.
+ */
+@Service
+public class LikeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LikeService.class);
+
+    private static final String EXISTS_LIKE = """
+            SELECT EXISTS (SELECT 1 FROM users_favourite_movies WHERE user_id = ? AND movie_id = ?)
+            """;
+    private static final String SELECT_LIKED_AMONG = """
+            SELECT movie_id FROM users_favourite_movies WHERE user_id = ? AND movie_id = ANY(?)
+            """;
+    private static final String INSERT_LIKE = """
+            INSERT INTO users_favourite_movies (user_id, movie_id) VALUES (?, ?)
+            ON CONFLICT DO NOTHING
+            """;
+    private static final String DELETE_LIKE = """
+            DELETE FROM users_favourite_movies WHERE user_id = ? AND movie_id = ?
+            """;
+    private static final String SELECT_ALL_LIKED = """
+            SELECT movie_id FROM users_favourite_movies WHERE user_id = ? ORDER BY movie_id
+            """;
+
+    private record LikeKey(Long userId, Long movieId) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ResourceVersionService resourceVersions;
+    private final Cache<Long, long[]> likedMovieIds;
+    private final WriteBehindBuffer<LikeKey> pendingLikes;
+    private final ExecutorService flushExecutor;
+
+    public LikeService(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            ResourceVersionService resourceVersions,
+            MeterRegistry meterRegistry,
+            @Value("${likes.cache.enabled}") boolean cacheEnabled,
+            @Value("${likes.cache.max-users}") long cacheMaxUsers,
+            @Value("${likes.cache.expire-after-access}") Duration cacheExpireAfterAccess,
+            @Value("${likes.write-behind.enabled}") boolean writeBehindEnabled,
+            @Value("${likes.write-behind.flush-threshold}") int flushThreshold,
+            @Value("${likes.write-behind.max-attempts}") int maxAttempts) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.resourceVersions = resourceVersions;
+
+        if (cacheEnabled) {
+            this.likedMovieIds = Caffeine.newBuilder()
+                    .maximumSize(cacheMaxUsers)
+                    .expireAfterAccess(cacheExpireAfterAccess)
+                    .recordStats()
+                    .build();
+            CaffeineCacheMetrics.monitor(meterRegistry, likedMovieIds, "likes.liked-movie-ids");
+        } else {
+            this.likedMovieIds = null;
+        }
+
+        if (writeBehindEnabled) {
+            this.flushExecutor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "likes-flush");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.pendingLikes = new WriteBehindBuffer<>(this::writeLikes, flushThreshold, flushExecutor, maxAttempts,
+                    (key, failure) -> logger.error("Dropped like change of user {} for movie {} after {} failed writes: {}",
+                            key.userId(), key.movieId(), maxAttempts, failure.getMessage()));
+            meterRegistry.gauge("likes.write-behind.pending", pendingLikes, WriteBehindBuffer::size);
+        } else {
+            this.flushExecutor = null;
+            this.pendingLikes = null;
+        }
+    }
+
+    public boolean isLiked(Long userId, Long movieId) {
+        if (pendingLikes != null) {
+            Boolean pending = pendingLikes.bufferedState(new LikeKey(userId, movieId));
+            if (pending != null) {
+                return pending;
+            }
+        }
+        return isStoredLiked(userId, movieId);
+    }
+
+    private boolean isStoredLiked(Long userId, Long movieId) {
+        if (likedMovieIds != null) {
+            return Arrays.binarySearch(getLikedMovieIds(userId), movieId) >= 0;
+        }
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(EXISTS_LIKE, Boolean.class, userId, movieId));
+    }
+
+    /**
+     * Returns for each of the given movies whether the user has liked it, in the order given.
+     */
+    public Map<Long, Boolean> areLiked(Long userId, Collection<Long> movieIds) {
+        Map<Long, Boolean> liked = new LinkedHashMap<>();
+        movieIds.forEach(movieId -> liked.put(movieId, false));
+        if (liked.isEmpty()) {
+            return liked;
+        }
+
+        if (likedMovieIds != null) {
+            long[] likedIds = getLikedMovieIds(userId);
+            liked.replaceAll((movieId, ignored) -> Arrays.binarySearch(likedIds, movieId) >= 0);
+        } else {
+            Object[] ids = liked.keySet().toArray();
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(SELECT_LIKED_AMONG);
+                statement.setLong(1, userId);
+                statement.setArray(2, connection.createArrayOf("bigint", ids));
+                return statement;
+            }, (RowCallbackHandler) resultSet -> liked.put(resultSet.getLong("movie_id"), true));
+        }
+
+        if (pendingLikes != null) {
+            liked.replaceAll((movieId, stored) -> {
+                Boolean pending = pendingLikes.bufferedState(new LikeKey(userId, movieId));
+                return pending != null ? pending : stored;
+            });
+        }
+        return liked;
+    }
+
+    /**
+     * Marks the movie as liked with a single idempotent insert, deferred in write-behind mode.
+     * Returns false if it already was. The profile version is bumped once the like is stored, so
+     * profiles built in between are not cached under a version that promises the like.
+     */
+    public boolean like(Long userId, Long movieId) {
+        boolean changed;
+        if (pendingLikes != null) {
+            changed = pendingLikes.submit(new LikeKey(userId, movieId), true, () -> isStoredLiked(userId, movieId));
+        } else {
+            changed = jdbcTemplate.update(INSERT_LIKE, userId, movieId) > 0;
+            invalidate(userId);
+            if (changed) {
+                resourceVersions.profileChanged(userId);
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Removes the like with a single delete. Returns false if the movie was not liked.
+     */
+    public boolean unlike(Long userId, Long movieId) {
+        boolean changed;
+        if (pendingLikes != null) {
+            changed = pendingLikes.submit(new LikeKey(userId, movieId), false, () -> isStoredLiked(userId, movieId));
+        } else {
+            changed = jdbcTemplate.update(DELETE_LIKE, userId, movieId) > 0;
+            invalidate(userId);
+            if (changed) {
+                resourceVersions.profileChanged(userId);
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Must be called after every change to the user's likes made outside {@link #like} and {@link #unlike}.
+     */
+    public void invalidate(Long userId) {
+        if (likedMovieIds != null) {
+            likedMovieIds.invalidate(userId);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${likes.write-behind.flush-interval}")
+    public void flushPendingLikes() {
+        if (pendingLikes == null) {
+            return;
+        }
+        int pending = pendingLikes.size();
+        int written = pendingLikes.flush();
+        if (written < pending) {
+            logger.warn("Wrote {} of {} pending likes, the rest will be retried", written, pending);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() throws InterruptedException {
+        if (pendingLikes == null) {
+            return;
+        }
+        flushExecutor.shutdown();
+        flushExecutor.awaitTermination(10, TimeUnit.SECONDS);
+
+        int written = pendingLikes.flush();
+        logger.info("Wrote {} pending likes on shutdown", written);
+    }
+
+    private void writeLikes(Map<LikeKey, Boolean> changes) {
+        List<Object[]> inserts = new ArrayList<>();
+        List<Object[]> deletes = new ArrayList<>();
+        Set<Long> userIds = new HashSet<>();
+        changes.forEach((key, liked) -> {
+            (liked ? inserts : deletes).add(new Object[]{key.userId(), key.movieId()});
+            userIds.add(key.userId());
+        });
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!inserts.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_LIKE, inserts);
+            }
+            if (!deletes.isEmpty()) {
+                jdbcTemplate.batchUpdate(DELETE_LIKE, deletes);
+            }
+        });
+        userIds.forEach(userId -> {
+            invalidate(userId);
+            resourceVersions.profileChanged(userId);
+        });
+    }
+
+    private long[] getLikedMovieIds(Long userId) {
+        return likedMovieIds.get(userId, id -> jdbcTemplate.queryForList(SELECT_ALL_LIKED, Long.class, id)
+                .stream()
+                .mapToLong(Long::longValue)
+                .toArray());
+    }
+}
@@ -0,0 +1,194 @@
+package cz.osu.opr3_final_project.services;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import cz.osu.opr3_final_project.dtos.tmdb.TmdbMovieDetailsDTO;
+import cz.osu.opr3_final_project.model.entities.Genre;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+
+/**
+ * Pre-loads the movie catalogue from a TMDB export in JSON lines format (one movie details object
+ * per line), e.g. {@code --catalogue.ingest.file=/data/movies.jsonl}.
+ * <p>
+ * Movies and their genre links are written with batched JDBC inserts, one transaction per batch.
+ * After every committed batch the number of processed records is written to {@code <file>.checkpoint},
+ * so an interrupted run continues where it stopped. Rows that already exist are left untouched.
+ */
+@Component
+@ConditionalOnProperty(name = "catalogue.ingest.file")
+public class MovieCatalogueIngestionJob implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(MovieCatalogueIngestionJob.class);
+
+    private static final String INSERT_MOVIE = """
+            INSERT INTO movies (id, title, release_date, description, poster_url)
+            VALUES (?, ?, ?, ?, ?)
+            ON CONFLICT (id) DO NOTHING
+            """;
+    private static final String INSERT_MOVIE_GENRE = """
+            INSERT INTO movies_genre (movie_id, genre_id)
+            VALUES (?, ?)
+            ON CONFLICT DO NOTHING
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final TmdbResponseParser responseParser;
+    private final GenreDictionary genreDictionary;
+    private final Path inputFile;
+    private final int batchSize;
+
+    public MovieCatalogueIngestionJob(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper,
+            GenreDictionary genreDictionary,
+            @Value("${catalogue.ingest.file}") Path inputFile,
+            @Value("${catalogue.ingest.batch-size}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.responseParser = new TmdbResponseParser(objectMapper.getFactory());
+        this.genreDictionary = genreDictionary;
+        this.inputFile = inputFile;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        ingest();
+    }
+
+    public void ingest() throws IOException {
+        Path checkpointFile = inputFile.resolveSibling(inputFile.getFileName() + ".checkpoint");
+        long resumeFrom = readCheckpoint(checkpointFile);
+
+        if (resumeFrom > 0) {
+            logger.info("Resuming catalogue ingestion of {} after {} records", inputFile, resumeFrom);
+        } else {
+            logger.info("Starting catalogue ingestion of {}", inputFile);
+        }
+
+        long startedAt = System.nanoTime();
+        long records = 0;
+        long committedRecords = resumeFrom;
+        long movieCount = 0;
+        List<TmdbMovieDetailsDTO> batch = new ArrayList<>(batchSize);
+
+        try (InputStream input = new BufferedInputStream(Files.newInputStream(inputFile));
+             JsonParser parser = objectMapper.getFactory().createParser(input)) {
+
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                if (token != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                    continue;
+                }
+
+                records++;
+                if (records <= resumeFrom) {
+                    parser.skipChildren();
+                    continue;
+                }
+
+                TmdbMovieDetailsDTO movie = responseParser.readMovieDetails(parser);
+                if (movie != null) {
+                    batch.add(movie);
+                    movieCount++;
+                }
+
+                if (records - committedRecords >= batchSize) {
+                    writeBatch(batch);
+                    committedRecords = records;
+                    writeCheckpoint(checkpointFile, committedRecords);
+                    logProgress(committedRecords - resumeFrom, movieCount, startedAt);
+                    batch.clear();
+                }
+            }
+        }
+
+        if (records > committedRecords) {
+            writeBatch(batch);
+        }
+        Files.deleteIfExists(checkpointFile);
+
+        logger.info("Catalogue ingestion of {} finished", inputFile);
+        logProgress(records - resumeFrom, movieCount, startedAt);
+    }
+
+    private void writeBatch(List<TmdbMovieDetailsDTO> movies) {
+        Set<String> genreNames = new HashSet<>();
+        movies.forEach(movie -> genreNames.addAll(movie.genre()));
+        Map<String, Genre> genres = genreDictionary.resolve(genreNames);
+
+        List<Object[]> movieRows = new ArrayList<>(movies.size());
+        List<Object[]> genreRows = new ArrayList<>();
+
+        for (TmdbMovieDetailsDTO movie : movies) {
+            movieRows.add(new Object[]{
+                    movie.id(),
+                    truncate(movie.title(), 255),
+                    truncate(movie.releaseDate(), 50),
+                    truncate(movie.description(), 1000),
+                    truncate(movie.posterUrl(), 500)
+            });
+
+            for (String genreName : new LinkedHashSet<>(movie.genre())) {
+                Genre genre = genres.get(genreName);
+                if (genre != null) {
+                    genreRows.add(new Object[]{movie.id(), genre.getId()});
+                }
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(INSERT_MOVIE, movieRows);
+            jdbcTemplate.batchUpdate(INSERT_MOVIE_GENRE, genreRows);
+        });
+    }
+
+    private long readCheckpoint(Path checkpointFile) throws IOException {
+        if (!Files.exists(checkpointFile)) {
+            return 0;
+        }
+        return Long.parseLong(Files.readString(checkpointFile).trim());
+    }
+
+    private void writeCheckpoint(Path checkpointFile, long committedRecords) throws IOException {
+        Path temporaryFile = checkpointFile.resolveSibling(checkpointFile.getFileName() + ".tmp");
+        Files.writeString(temporaryFile, Long.toString(committedRecords));
+        Files.move(temporaryFile, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void logProgress(long records, long movieCount, long startedAt) {
+        double seconds = Math.max((System.nanoTime() - startedAt) / 1_000_000_000.0, 0.001);
+        logger.info("Processed {} records ({} movies) in {} s, {} records/s",
+                records, movieCount, String.format("%.1f", seconds), Math.round(records / seconds));
+    }
+
+    private static String truncate(String value, int maxLength) {
+        if (value == null || value.length() <= maxLength) {
+            return value;
+        }
+        return value.substring(0, maxLength);
+    }
+}
@@ -0,0 +1,117 @@
+package cz.osu.opr3_final_project.services;
+
+import cz.osu.opr3_final_project.dtos.tmdb.TmdbMovieSearchDTO;
+import cz.osu.opr3_final_project.dtos.tmdb.TmdbSearchResultsDTO;
+import cz.osu.opr3_final_project.model.entities.Movie;
+import cz.osu.opr3_final_project.repositories.MovieRepository;
+import cz.osu.opr3_final_project.utils.SearchQueryNormalizer;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+/**
+ * Answers movie searches from the local full-text index over persisted movies first and only asks
+ * TMDB for what the local results cannot fill. Every persisted movie came from TMDB, so local hits
+ * are a popularity-ranked head of the same result set rather than a separate one.
+ */
+@Service
+public class MovieSearchService {
+
+    private final MovieRepository movieRepository;
+    private final TmdbService tmdbService;
+
+    public MovieSearchService(MovieRepository movieRepository, TmdbService tmdbService) {
+        this.movieRepository = movieRepository;
+        this.tmdbService = tmdbService;
+    }
+
+    /**
+     * Pages over one list: all local hits, followed by TMDB's results without the local hits. A page
+     * that starts in the local hits reads them from the local index, and TMDB fills the rest; past
+     * the local hits, TMDB is read shifted back by their number. Every result shows up on exactly one
+     * page; pages where TMDB repeated a local hit come out that much shorter.
+     */
+    public TmdbSearchResultsDTO<TmdbMovieSearchDTO> searchMovies(String query, int page, int pageSize) {
+        String tsQuery = toPrefixTsQuery(query);
+        if (tsQuery == null) {
+            return new TmdbSearchResultsDTO<>(List.of(), 0);
+        }
+
+        int offset = Math.multiplyExact(page - 1, pageSize);
+        TmdbSearchResultsDTO<TmdbMovieSearchDTO> localResults = searchLocalMovies(tsQuery, page, pageSize);
+        List<TmdbMovieSearchDTO> localMovies = localResults.results();
+        int localTotal = localResults.totalResults();
+
+        if (localMovies.size() >= pageSize) {
+            // The page is full without TMDB. Warm TMDB's first page in the background so the
+            // total and the following pages are ready, and use its total if it is already cached.
+            CompletableFuture<TmdbSearchResultsDTO<TmdbMovieSearchDTO>> tmdbResults =
+                    tmdbService.searchMoviesAsync(query);
+            TmdbSearchResultsDTO<TmdbMovieSearchDTO> cachedTmdbResults = tmdbResults.getNow(null);
+            int totalResults = cachedTmdbResults != null
+                    ? localTotal + cachedTmdbResults.totalResults()
+                    : localTotal;
+            return new TmdbSearchResultsDTO<>(localMovies, totalResults);
+        }
+
+        int tmdbFirstIndex = Math.max(offset - localTotal, 0);
+        int tmdbCount = pageSize - localMovies.size();
+        TmdbSearchResultsDTO<TmdbMovieSearchDTO> tmdbResults =
+                tmdbService.searchMovieRange(query, tmdbFirstIndex, tmdbCount);
+        if (tmdbResults == null) {
+            return localResults;
+        }
+
+        Set<Long> localHitIds = findLocalHitIds(tsQuery, tmdbResults.results());
+        List<TmdbMovieSearchDTO> movies = new ArrayList<>(localMovies);
+        for (TmdbMovieSearchDTO movie : tmdbResults.results()) {
+            if (!localHitIds.contains(movie.id())) {
+                movies.add(movie);
+            }
+        }
+
+        return new TmdbSearchResultsDTO<>(movies, localTotal + tmdbResults.totalResults());
+    }
+
+    // TMDB results that the local index also finds are listed among the local hits.
+    private Set<Long> findLocalHitIds(String tsQuery, List<TmdbMovieSearchDTO> tmdbMovies) {
+        if (tmdbMovies.isEmpty()) {
+            return Set.of();
+        }
+        List<Long> ids = tmdbMovies.stream().map(TmdbMovieSearchDTO::id).toList();
+        return new HashSet<>(movieRepository.findTextMatchIds(tsQuery, ids));
+    }
+
+    private TmdbSearchResultsDTO<TmdbMovieSearchDTO> searchLocalMovies(String tsQuery, int page, int pageSize) {
+        Page<Movie> localMovies = movieRepository.searchByText(tsQuery, PageRequest.of(page - 1, pageSize));
+
+        List<TmdbMovieSearchDTO> movies = localMovies.stream()
+                .map(movie -> new TmdbMovieSearchDTO(
+                        movie.getId(),
+                        movie.getTitle(),
+                        movie.getReleaseDate(),
+                        movie.getPosterUrl()
+                ))
+                .toList();
+        return new TmdbSearchResultsDTO<>(movies, (int) localMovies.getTotalElements());
+    }
+
+    // "the matr" -> "the:* & matr:*", so results show up while the last word is still being typed.
+    private static String toPrefixTsQuery(String query) {
+        List<String> words = SearchQueryNormalizer.words(query);
+        if (words.isEmpty()) {
+            return null;
+        }
+
+        return words.stream()
+                .map(word -> word + ":*")
+                .collect(Collectors.joining(" & "));
+    }
+}
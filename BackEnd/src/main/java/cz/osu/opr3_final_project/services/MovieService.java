@@ -1,56 +1,171 @@
 package cz.osu.opr3_final_project.services;
 
+import cz.osu.opr3_final_project.dtos.CommentPageDTO;
+import cz.osu.opr3_final_project.dtos.tmdb.TmdbMovieDetailsActorDTO;
 import cz.osu.opr3_final_project.dtos.tmdb.TmdbMovieDetailsDTO;
+import cz.osu.opr3_final_project.dtos.tmdb.TmdbMovieDetailsDirectorDTO;
 import cz.osu.opr3_final_project.model.entities.Genre;
 import cz.osu.opr3_final_project.model.entities.Movie;
-import cz.osu.opr3_final_project.repositories.GenreRepository;
 import cz.osu.opr3_final_project.repositories.MovieRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 @Service
 public class MovieService {
 
+    private static final String INSERT_MOVIE = """
+            INSERT INTO movies (id, title, release_date, description, poster_url)
+            VALUES (?, ?, ?, ?, ?)
+            ON CONFLICT (id) DO NOTHING
+            """;
+    private static final String INSERT_MOVIE_GENRE = """
+            INSERT INTO movies_genre (movie_id, genre_id)
+            VALUES (?, ?)
+            ON CONFLICT DO NOTHING
+            """;
+    private static final String INSERT_MOVIE_DIRECTOR = """
+            INSERT INTO movie_directors (movie_id, person_id, name)
+            VALUES (?, ?, ?)
+            ON CONFLICT DO NOTHING
+            """;
+    private static final String INSERT_MOVIE_CAST = """
+            INSERT INTO movie_cast (movie_id, billing_order, person_id, name, character_name)
+            VALUES (?, ?, ?, ?, ?)
+            """;
+
     private final MovieRepository movieRepository;
-    private final GenreRepository genreRepository;
+    private final CommentService commentService;
+    private final GenreDictionary genreDictionary;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int commentsPageSize;
 
-    public MovieService(MovieRepository movieRepository, GenreRepository genreRepository) {
+    public MovieService(
+            MovieRepository movieRepository,
+            CommentService commentService,
+            GenreDictionary genreDictionary,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${comments.page-size}") int commentsPageSize) {
         this.movieRepository = movieRepository;
-        this.genreRepository = genreRepository;
+        this.commentService = commentService;
+        this.genreDictionary = genreDictionary;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.commentsPageSize = commentsPageSize;
     }
 
+    /**
+     * Stores the movie with its genre links and credits unless it already exists, then reads it back.
+     * The insert uses ON CONFLICT DO NOTHING and all rows are written in one transaction, so concurrent
+     * first views, likes and comments of the same movie wait for the first writer instead of failing.
+     * Movies that are already stored are returned right away, without resolving genres or opening
+     * a transaction.
+     */
     public Movie createMovieIfNotExists(TmdbMovieDetailsDTO movieDetailsDTO) {
         if (movieDetailsDTO == null) {
             throw new IllegalArgumentException("Movie details cannot be null");
         }
 
-        Movie newMovie = new Movie();
-        newMovie.setId(movieDetailsDTO.id());
-        newMovie.setTitle(movieDetailsDTO.title());
-        newMovie.setReleaseDate(movieDetailsDTO.releaseDate());
-        newMovie.setDescription(movieDetailsDTO.description());
-        newMovie.setPosterUrl(movieDetailsDTO.posterUrl());
-
-        if (newMovie.getGenres() == null) {
-            newMovie.setGenres(new ArrayList<>());
+        Long movieId = movieDetailsDTO.id();
+        Optional<Movie> existingMovie = movieRepository.findById(movieId);
+        if (existingMovie.isPresent()) {
+            return existingMovie.get();
         }
 
-        if (movieDetailsDTO.genre() != null) {
-            for (String genreName : movieDetailsDTO.genre()) {
-                if (genreName != null && !genreName.trim().isEmpty()) {
-                    Genre genreEntity = genreRepository.findByName(genreName)
-                            .orElseGet(() -> {
-                                Genre newGenre = new Genre();
-                                newGenre.setName(genreName);
-                                return genreRepository.save(newGenre);
-                            });
-                    newMovie.getGenres().add(genreEntity);
+        // Resolved outside the insert transaction: new genres are stored in a transaction of their own,
+        // which must not wait for a second pooled connection while this one holds the movie row.
+        Collection<Genre> genres = movieDetailsDTO.genre() != null
+                ? genreDictionary.resolve(movieDetailsDTO.genre()).values()
+                : List.of();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            int inserted = jdbcTemplate.update(INSERT_MOVIE,
+                    movieId,
+                    movieDetailsDTO.title(),
+                    movieDetailsDTO.releaseDate(),
+                    movieDetailsDTO.description(),
+                    movieDetailsDTO.posterUrl());
+            if (inserted == 0) {
+                return;
+            }
+
+            jdbcTemplate.batchUpdate(INSERT_MOVIE_GENRE, genres.stream()
+                    .map(genre -> new Object[]{movieId, genre.getId()})
+                    .toList());
+
+            if (movieDetailsDTO.directors() != null) {
+                jdbcTemplate.batchUpdate(INSERT_MOVIE_DIRECTOR, movieDetailsDTO.directors().stream()
+                        .map(director -> new Object[]{movieId, director.id(), director.name()})
+                        .toList());
+            }
+
+            if (movieDetailsDTO.actors() != null) {
+                List<Object[]> castRows = new ArrayList<>();
+                for (int i = 0; i < movieDetailsDTO.actors().size(); i++) {
+                    TmdbMovieDetailsActorDTO actor = movieDetailsDTO.actors().get(i);
+                    castRows.add(new Object[]{movieId, i, actor.id(), actor.name(), actor.character()});
                 }
+                jdbcTemplate.batchUpdate(INSERT_MOVIE_CAST, castRows);
             }
-        }
+        });
+
+        return movieRepository.findById(movieId)
+                .orElseThrow(() -> new IllegalStateException("Movie " + movieId + " was not stored"));
+    }
+
+    /**
+     * Builds the movie page from a fixed number of queries regardless of the number of comments: the
+     * movie with its genres and credits, the first page of comments with their authors' usernames,
+     * and the comment count. Further pages come from {@link CommentService#getCommentPage}.
+     */
+    public TmdbMovieDetailsDTO getMovieDetails(Long movieId) {
+        return movieRepository.findWithDetailsById(movieId)
+                .map(movie -> toMovieDetailsDTO(movie, commentService.getCommentPage(movieId, null, commentsPageSize)))
+                .orElse(null);
+    }
+
+    public TmdbMovieDetailsDTO toMovieDetailsDTO(Movie movie, CommentPageDTO commentPage) {
+        List<String> genres = movie.getGenres() != null
+                ? movie.getGenres().stream().map(Genre::getName).toList()
+                : new ArrayList<>();
+
+        List<TmdbMovieDetailsDirectorDTO> directors = movie.getDirectors() != null
+                ? movie.getDirectors().stream()
+                .map(director -> new TmdbMovieDetailsDirectorDTO(director.getPersonId(), director.getName()))
+                .toList()
+                : new ArrayList<>();
+
+        List<TmdbMovieDetailsActorDTO> actors = movie.getCast() != null
+                ? movie.getCast().stream()
+                .map(castMember -> new TmdbMovieDetailsActorDTO(
+                        castMember.getPersonId(),
+                        castMember.getName(),
+                        castMember.getCharacterName()
+                ))
+                .toList()
+                : new ArrayList<>();
 
-        movieRepository.save(newMovie);
-        return newMovie;
+        return new TmdbMovieDetailsDTO(
+                movie.getId(),
+                movie.getTitle(),
+                movie.getReleaseDate(),
+                movie.getDescription(),
+                genres,
+                commentPage != null ? commentPage.comments() : null,
+                movie.getPosterUrl(),
+                directors,
+                actors,
+                commentPage != null ? commentPage.totalCount() : null,
+                commentPage != null ? commentPage.nextCursor() : null
+        );
     }
 }
\ No newline at end of file
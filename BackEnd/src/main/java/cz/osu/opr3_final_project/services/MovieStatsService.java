@@ -0,0 +1,106 @@
+package cz.osu.opr3_final_project.services;
+
+import cz.osu.opr3_final_project.dtos.MovieStatsDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.util.*;
+
+/**
+ * Reads the per-movie like and comment counters from movie_stats. The counters are maintained by
+ * database triggers (see V10 migration); {@link #rebuild()} recomputes them from the base tables.
+ */
+@Service
+public class MovieStatsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MovieStatsService.class);
+
+    private static final String SELECT_STATS = """
+            SELECT movie_id, like_count, comment_count FROM movie_stats WHERE movie_id = ANY(?)
+            """;
+    private static final String REBUILD_STATS = """
+            INSERT INTO movie_stats (movie_id, like_count, comment_count)
+            SELECT m.id, COALESCE(l.like_count, 0), COALESCE(c.comment_count, 0)
+            FROM movies m
+            LEFT JOIN (SELECT movie_id, count(*) AS like_count FROM users_favourite_movies GROUP BY movie_id) l
+                   ON l.movie_id = m.id
+            LEFT JOIN (SELECT movie_id, count(*) AS comment_count FROM comments GROUP BY movie_id) c
+                   ON c.movie_id = m.id
+            ON CONFLICT (movie_id) DO UPDATE
+                SET like_count = EXCLUDED.like_count, comment_count = EXCLUDED.comment_count
+                WHERE movie_stats.like_count <> EXCLUDED.like_count
+                   OR movie_stats.comment_count <> EXCLUDED.comment_count
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ResourceVersionService resourceVersions;
+
+    public MovieStatsService(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            ResourceVersionService resourceVersions) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.resourceVersions = resourceVersions;
+    }
+
+    public MovieStatsDTO getStats(Long movieId) {
+        return getStats(List.of(movieId)).get(movieId);
+    }
+
+    /**
+     * Returns the counters for the given movies by primary key lookup. Movies nobody has liked or
+     * commented on yet have no row and are reported with zero counts.
+     */
+    public Map<Long, MovieStatsDTO> getStats(Collection<Long> movieIds) {
+        Map<Long, MovieStatsDTO> stats = new LinkedHashMap<>();
+        for (Long movieId : movieIds) {
+            stats.put(movieId, new MovieStatsDTO(movieId, 0, 0));
+        }
+        if (stats.isEmpty()) {
+            return stats;
+        }
+
+        Object[] ids = stats.keySet().toArray();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SELECT_STATS);
+            statement.setArray(1, connection.createArrayOf("bigint", ids));
+            return statement;
+        }, (RowCallbackHandler) resultSet -> {
+            long movieId = resultSet.getLong("movie_id");
+            stats.put(movieId, new MovieStatsDTO(
+                    movieId, resultSet.getLong("like_count"), resultSet.getLong("comment_count")));
+        });
+        return stats;
+    }
+
+    /**
+     * Recomputes all counters from users_favourite_movies and comments. Writes to both tables are
+     * blocked for the duration, so no trigger update can slip in between counting and storing.
+     */
+    @Scheduled(cron = "${movie-stats.repair.cron}")
+    public void rebuild() {
+        long startedAt = System.nanoTime();
+
+        Integer repaired = transactionTemplate.execute(status -> {
+            jdbcTemplate.execute("LOCK TABLE users_favourite_movies, comments IN SHARE MODE");
+            return jdbcTemplate.update(REBUILD_STATS);
+        });
+
+        if (repaired != null && repaired > 0) {
+            // Corrected counts show up in movie and profile responses.
+            resourceVersions.allChanged();
+        }
+
+        logger.info("Movie stats rebuilt in {} ms, {} rows corrected",
+                (System.nanoTime() - startedAt) / 1_000_000, repaired);
+    }
+}
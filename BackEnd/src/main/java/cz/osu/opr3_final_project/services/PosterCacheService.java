@@ -0,0 +1,191 @@
+package cz.osu.opr3_final_project.services;
+
+import cz.osu.opr3_final_project.utils.SingleFlight;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Stream;
+
+/**
+ * Keeps TMDB poster images on local disk. Each size variant is downloaded once and then served from
+ * the cache directory; when the directory grows past its size limit the least recently served
+ * files are evicted.
+ * <p>
+ * An evicted file is deleted only after {@code poster.cache.eviction-grace}: a request that was
+ * handed its path, and with sendfile opens it only after the controller returns, still finds it.
+ * A poster downloaded again in the meantime is kept.
+ */
+@Service
+public class PosterCacheService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PosterCacheService.class);
+
+    public record CachedPoster(Path file, long length, String etag, MediaType contentType) {}
+
+    private record EvictedFile(String key, long evictedAtNanos) {}
+
+    private final RestTemplate restTemplate;
+    private final Path cacheDirectory;
+    private final long maxBytes;
+    private final String imageBaseUrl;
+    private final Duration evictionGrace;
+    private final SingleFlight<String, Long> downloads = new SingleFlight<>();
+    // In eviction order.
+    private final Queue<EvictedFile> evictedFiles = new ConcurrentLinkedQueue<>();
+
+    // Access-ordered, so iteration starts at the least recently used poster. Guarded by itself.
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long totalBytes;
+
+    public PosterCacheService(
+            @Qualifier("tmdbRestTemplate") RestTemplate restTemplate,
+            @Value("${poster.cache.directory}") Path cacheDirectory,
+            @Value("${poster.cache.max-size}") DataSize maxSize,
+            @Value("${tmdb.image.base-url}") String imageBaseUrl,
+            @Value("${poster.cache.eviction-grace}") Duration evictionGrace) throws IOException {
+        this.restTemplate = restTemplate;
+        this.cacheDirectory = cacheDirectory.toAbsolutePath();
+        this.maxBytes = maxSize.toBytes();
+        this.imageBaseUrl = imageBaseUrl;
+        this.evictionGrace = evictionGrace;
+
+        Files.createDirectories(this.cacheDirectory);
+        loadExistingEntries();
+    }
+
+    /**
+     * Returns the cached poster, downloading it first if needed, or null when TMDB does not have it.
+     */
+    public CachedPoster getPoster(String size, String fileName) {
+        String key = size + "/" + fileName;
+        Path file = cacheDirectory.resolve(size).resolve(fileName);
+
+        Long length;
+        synchronized (entries) {
+            length = entries.get(key);
+        }
+        if (length == null || !Files.exists(file)) {
+            length = downloads.execute(key, () -> download(key, file));
+        }
+        if (length == null) {
+            return null;
+        }
+
+        MediaType contentType = MediaTypeFactory.getMediaType(fileName).orElse(MediaType.APPLICATION_OCTET_STREAM);
+        // TMDB never changes the image behind a path, so path and length identify the bytes.
+        String etag = "\"" + size + "-" + fileName + "-" + length + "\"";
+        return new CachedPoster(file, length, etag, contentType);
+    }
+
+    private Long download(String key, Path file) {
+        try {
+            Files.createDirectories(file.getParent());
+            Path temporaryFile = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+
+            try {
+                restTemplate.execute(imageBaseUrl + "/" + key, HttpMethod.GET, null, response -> {
+                    Files.copy(response.getBody(), temporaryFile, StandardCopyOption.REPLACE_EXISTING);
+                    return null;
+                });
+            } catch (HttpClientErrorException.NotFound e) {
+                Files.deleteIfExists(temporaryFile);
+                return null;
+            } catch (RuntimeException e) {
+                Files.deleteIfExists(temporaryFile);
+                throw e;
+            }
+
+            long length = Files.size(temporaryFile);
+            synchronized (entries) {
+                // Moved and registered together, so a pending deletion of an evicted copy cannot
+                // remove the new file.
+                Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                register(key, length);
+            }
+            return length;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void register(String key, long length) {
+        synchronized (entries) {
+            Long previous = entries.put(key, length);
+            totalBytes += length - (previous != null ? previous : 0);
+
+            Iterator<Map.Entry<String, Long>> iterator = entries.entrySet().iterator();
+            while (totalBytes > maxBytes && iterator.hasNext()) {
+                Map.Entry<String, Long> eldest = iterator.next();
+                if (eldest.getKey().equals(key)) {
+                    continue;
+                }
+                totalBytes -= eldest.getValue();
+                evictedFiles.add(new EvictedFile(eldest.getKey(), System.nanoTime()));
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Deletes files evicted at least {@code poster.cache.eviction-grace} ago that were not
+     * downloaded again since.
+     */
+    @Scheduled(fixedDelayString = "${poster.cache.eviction-grace}")
+    public void deleteEvictedFiles() {
+        long now = System.nanoTime();
+        EvictedFile evicted;
+        while ((evicted = evictedFiles.peek()) != null && now - evicted.evictedAtNanos() >= evictionGrace.toNanos()) {
+            evictedFiles.poll();
+            synchronized (entries) {
+                if (entries.containsKey(evicted.key())) {
+                    continue;
+                }
+                try {
+                    Files.deleteIfExists(cacheDirectory.resolve(evicted.key()));
+                } catch (IOException e) {
+                    logger.warn("Could not delete evicted poster {}: {}", evicted.key(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void loadExistingEntries() throws IOException {
+        record ExistingFile(String key, long length, long lastModified) {}
+        List<ExistingFile> existingFiles = new ArrayList<>();
+
+        try (Stream<Path> files = Files.walk(cacheDirectory, 2)) {
+            for (Path file : files.filter(Files::isRegularFile).toList()) {
+                if (file.getFileName().toString().endsWith(".tmp")) {
+                    Files.deleteIfExists(file);
+                    continue;
+                }
+                BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                String key = cacheDirectory.relativize(file).toString().replace('\\', '/');
+                existingFiles.add(new ExistingFile(key, attributes.size(), attributes.lastModifiedTime().toMillis()));
+            }
+        }
+
+        existingFiles.sort(Comparator.comparingLong(ExistingFile::lastModified));
+        for (ExistingFile existingFile : existingFiles) {
+            register(existingFile.key(), existingFile.length());
+        }
+        logger.info("Poster cache holds {} files ({} bytes)", existingFiles.size(), totalBytes);
+    }
+}
@@ -0,0 +1,123 @@
+package cz.osu.opr3_final_project.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.UncheckedIOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps a version for each movie details and profile response, bumped by every change that alters
+ * the response, and turns it into a weak ETag. Serialized response bodies are cached by ETag.
+ * <p>
+ * Versions are drawn from one sequence that starts at a per-process value, so an ETag is never
+ * reissued for different content: a version that is evicted or lost on restart comes back as a new
+ * one, which only costs the client a full response. Versions are local to this instance.
+ */
+@Service
+public class ResourceVersionService {
+
+    private static final String MOVIE = "movie:";
+    private static final String PROFILE = "profile:";
+
+    private final ObjectMapper objectMapper;
+    private final Cache<String, Long> versions;
+    private final Cache<String, byte[]> responseBodies;
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong sequence = new AtomicLong();
+
+    public ResourceVersionService(
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${response-cache.max-versions}") long maxVersions,
+            @Value("${response-cache.max-size}") DataSize maxSize) {
+        this.objectMapper = objectMapper;
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(maxVersions)
+                .build();
+        this.responseBodies = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .<String, byte[]>weigher((eTag, body) -> body.length)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, responseBodies, "response-cache.bodies");
+    }
+
+    public String movieETag(Long movieId) {
+        return eTag(MOVIE + movieId);
+    }
+
+    public String profileETag(Long userId) {
+        return eTag(PROFILE + userId);
+    }
+
+    public void movieChanged(Long movieId) {
+        versions.put(MOVIE + movieId, nextVersion());
+    }
+
+    public void profileChanged(Long userId) {
+        versions.put(PROFILE + userId, nextVersion());
+    }
+
+    /**
+     * Invalidates every ETag, for changes that may touch any response (e.g. a counter repair).
+     */
+    public void allChanged() {
+        versions.invalidateAll();
+    }
+
+    /**
+     * Returns true if the If-None-Match header lists the ETag (weak comparison) or is "*".
+     */
+    public boolean matches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String opaqueTag = stripWeak(eTag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.equals("*") || stripWeak(value).equals(opaqueTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public byte[] getCachedBody(String eTag) {
+        return responseBodies.getIfPresent(eTag);
+    }
+
+    /**
+     * Serializes the body and stores it under the ETag. The ETag must be read before the body is
+     * loaded, so a stored body is never older than the version it is stored under.
+     */
+    public byte[] cacheBody(String eTag, Object body) {
+        try {
+            byte[] serialized = objectMapper.writeValueAsBytes(body);
+            responseBodies.put(eTag, serialized);
+            return serialized;
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String eTag(String resource) {
+        long version = versions.get(resource, key -> nextVersion());
+        return "W/\"" + resource.replace(':', '-') + "-" + epoch + "-" + version + "\"";
+    }
+
+    private long nextVersion() {
+        return sequence.incrementAndGet();
+    }
+
+    private static String stripWeak(String eTag) {
+        return eTag.startsWith("W/") ? eTag.substring(2) : eTag;
+    }
+}
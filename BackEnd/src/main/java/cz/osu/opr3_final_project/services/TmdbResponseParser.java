@@ -0,0 +1,273 @@
+package cz.osu.opr3_final_project.services;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import cz.osu.opr3_final_project.dtos.tmdb.TmdbMovieDetailsActorDTO;
+import cz.osu.opr3_final_project.dtos.tmdb.TmdbMovieDetailsDTO;
+import cz.osu.opr3_final_project.dtos.tmdb.TmdbMovieDetailsDirectorDTO;
+import cz.osu.opr3_final_project.dtos.tmdb.TmdbMovieSearchDTO;
+import cz.osu.opr3_final_project.dtos.tmdb.TmdbSearchResultsDTO;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads TMDB responses token by token straight into our DTOs, skipping every field we do not use
+ * instead of building a String and a JsonNode tree for the whole payload first.
+ */
+public class TmdbResponseParser {
+
+    static final int TOP_BILLED_CAST = 10;
+
+    private final JsonFactory jsonFactory;
+
+    public TmdbResponseParser(JsonFactory jsonFactory) {
+        this.jsonFactory = jsonFactory;
+    }
+
+    public TmdbSearchResultsDTO<TmdbMovieSearchDTO> parseSearchResults(InputStream body) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+
+            List<TmdbMovieSearchDTO> movies = new ArrayList<>();
+            int totalResults = 0;
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+
+                switch (field) {
+                    case "results" -> {
+                        if (value == JsonToken.START_ARRAY) {
+                            readSearchResults(parser, movies);
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                    case "total_results" -> totalResults = parser.getValueAsInt();
+                    default -> parser.skipChildren();
+                }
+            }
+
+            return new TmdbSearchResultsDTO<>(movies, totalResults);
+        }
+    }
+
+    public TmdbMovieDetailsDTO parseMovieDetails(InputStream body) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            return readMovieDetails(parser);
+        }
+    }
+
+    /**
+     * Reads one movie details object. The parser must be positioned on its START_OBJECT token
+     * and is left on the matching END_OBJECT. Returns null when the object has no id.
+     * Directors and top-billed cast are read from an appended {@code credits} object when present.
+     */
+    public TmdbMovieDetailsDTO readMovieDetails(JsonParser parser) throws IOException {
+        boolean hasId = false;
+        long id = 0;
+        String title = "";
+        String releaseDate = null;
+        String description = "";
+        String posterPath = null;
+        List<String> genres = new ArrayList<>();
+        List<TmdbMovieDetailsDirectorDTO> directors = new ArrayList<>();
+        List<TmdbMovieDetailsActorDTO> actors = new ArrayList<>();
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+
+            switch (field) {
+                case "id" -> {
+                    hasId = true;
+                    id = parser.getValueAsLong();
+                }
+                case "title" -> title = asText(parser);
+                case "release_date" -> releaseDate = asText(parser);
+                case "overview" -> description = asText(parser);
+                case "poster_path" -> posterPath = value == JsonToken.VALUE_NULL ? null : asText(parser);
+                case "genres" -> {
+                    if (value == JsonToken.START_ARRAY) {
+                        readGenreNames(parser, genres);
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                case "credits" -> {
+                    if (value == JsonToken.START_OBJECT) {
+                        readCredits(parser, directors, actors);
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                default -> parser.skipChildren();
+            }
+        }
+
+        if (!hasId) {
+            return null;
+        }
+        return new TmdbMovieDetailsDTO(id, title, releaseDate, description, genres, null, posterPath, directors, actors, null, null);
+    }
+
+    private void readCredits(JsonParser parser, List<TmdbMovieDetailsDirectorDTO> directors,
+                             List<TmdbMovieDetailsActorDTO> actors) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+
+            if (value != JsonToken.START_ARRAY) {
+                parser.skipChildren();
+                continue;
+            }
+
+            switch (field) {
+                case "cast" -> readCast(parser, actors);
+                case "crew" -> readDirectors(parser, directors);
+                default -> parser.skipChildren();
+            }
+        }
+    }
+
+    // TMDB returns cast already sorted by billing order.
+    private void readCast(JsonParser parser, List<TmdbMovieDetailsActorDTO> actors) throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token != JsonToken.START_OBJECT || actors.size() >= TOP_BILLED_CAST) {
+                parser.skipChildren();
+                continue;
+            }
+
+            Long id = null;
+            String name = null;
+            String character = null;
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+
+                switch (field) {
+                    case "id" -> id = value == JsonToken.VALUE_NULL ? null : parser.getValueAsLong();
+                    case "name" -> name = parser.getValueAsString();
+                    case "character" -> character = parser.getValueAsString();
+                    default -> parser.skipChildren();
+                }
+            }
+
+            if (id != null && name != null) {
+                actors.add(new TmdbMovieDetailsActorDTO(id, name, character));
+            }
+        }
+    }
+
+    private void readDirectors(JsonParser parser, List<TmdbMovieDetailsDirectorDTO> directors) throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+
+            Long id = null;
+            String name = null;
+            String job = null;
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+
+                switch (field) {
+                    case "id" -> id = value == JsonToken.VALUE_NULL ? null : parser.getValueAsLong();
+                    case "name" -> name = parser.getValueAsString();
+                    case "job" -> job = parser.getValueAsString();
+                    default -> parser.skipChildren();
+                }
+            }
+
+            if ("Director".equals(job) && id != null && name != null) {
+                directors.add(new TmdbMovieDetailsDirectorDTO(id, name));
+            }
+        }
+    }
+
+    private void readSearchResults(JsonParser parser, List<TmdbMovieSearchDTO> movies) throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+
+            TmdbMovieSearchDTO movie = readSearchMovie(parser);
+            if (movie != null) {
+                movies.add(movie);
+            }
+        }
+    }
+
+    private TmdbMovieSearchDTO readSearchMovie(JsonParser parser) throws IOException {
+        Long id = null;
+        String title = "";
+        String releaseDate = null;
+        String posterPath = null;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+
+            switch (field) {
+                case "id" -> id = value == JsonToken.VALUE_NULL ? null : parser.getValueAsLong();
+                case "title" -> title = asText(parser);
+                case "release_date" -> releaseDate = asText(parser);
+                case "poster_path" -> posterPath = value == JsonToken.VALUE_NULL ? null : asText(parser);
+                default -> parser.skipChildren();
+            }
+        }
+
+        return id != null ? new TmdbMovieSearchDTO(id, title, releaseDate, posterPath) : null;
+    }
+
+    private void readGenreNames(JsonParser parser, List<String> genres) throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+
+                if (field.equals("name")) {
+                    genres.add(asText(parser));
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+    }
+
+    // Same conversion as JsonNode.asText(), so results match what the tree-based parsing produced.
+    private static String asText(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return "null";
+        }
+        if (token.isStructStart()) {
+            parser.skipChildren();
+            return "";
+        }
+        return parser.getText();
+    }
+}
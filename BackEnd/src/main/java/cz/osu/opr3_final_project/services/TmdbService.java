@@ -1,22 +1,53 @@
 package cz.osu.opr3_final_project.services;
 
 import cz.osu.opr3_final_project.dtos.tmdb.*;
-import com.fasterxml.jackson.databind.JsonNode;
+import cz.osu.opr3_final_project.repositories.MovieRepository;
+import cz.osu.opr3_final_project.utils.CircuitBreaker;
+import cz.osu.opr3_final_project.utils.PriorityRateLimiter;
+import cz.osu.opr3_final_project.utils.PriorityRateLimiter.Priority;
+import cz.osu.opr3_final_project.utils.SearchQueryNormalizer;
+import cz.osu.opr3_final_project.utils.SingleFlight;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResponseExtractor;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class TmdbService {
 
     private static final Logger logger = LoggerFactory.getLogger(TmdbService.class);
+    private static final int TMDB_PAGE_SIZE = 20;
+    private static final int TMDB_MAX_PAGE = 500;
+
+    private record SearchPageKey(String query, int page) {}
 
     @Value("${tmdb.api.key}")
     private String apiKey;
@@ -25,57 +56,268 @@ public class TmdbService {
     private String baseUrl;
 
     private final RestTemplate restTemplate;
-    private final ObjectMapper objectMapper;
+    private final Executor tmdbExecutor;
+    private final MovieRepository movieRepository;
+    private final MovieService movieService;
+    private final CircuitBreaker circuitBreaker;
+    private final Semaphore bulkhead;
+    private final Duration bulkheadMaxWait;
+    private final PriorityRateLimiter rateLimiter;
+    private final Map<Priority, Duration> rateLimitMaxWait;
+    private final MeterRegistry meterRegistry;
+    private final TmdbResponseParser responseParser;
+    private final LoadingCache<Long, TmdbMovieDetailsDTO> movieDetailsCache;
+    private final Cache<Long, Boolean> missingMovieIds;
+    private final Cache<SearchPageKey, TmdbSearchResultsDTO<TmdbMovieSearchDTO>> searchCache;
+    private final int searchMinPrefixLength;
+    private final SingleFlight<Long, TmdbMovieDetailsDTO> movieDetailsFlights = new SingleFlight<>();
+    private final SingleFlight<SearchPageKey, TmdbSearchResultsDTO<TmdbMovieSearchDTO>> searchFlights = new SingleFlight<>();
+
+    public TmdbService(
+            @Qualifier("tmdbRestTemplate") RestTemplate restTemplate,
+            @Qualifier("tmdbExecutor") Executor tmdbExecutor,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            MovieRepository movieRepository,
+            MovieService movieService,
+            PriorityRateLimiter tmdbRateLimiter,
+            @Value("${tmdb.cache.details.max-size}") long detailsCacheMaxSize,
+            @Value("${tmdb.cache.details.refresh-after}") Duration detailsRefreshAfter,
+            @Value("${tmdb.cache.details.expire-after}") Duration detailsExpireAfter,
+            @Value("${tmdb.cache.details.not-found-expire-after}") Duration notFoundExpireAfter,
+            @Value("${tmdb.cache.search.max-size}") long searchCacheMaxSize,
+            @Value("${tmdb.cache.search.expire-after}") Duration searchExpireAfter,
+            @Value("${tmdb.cache.search.min-prefix-length}") int searchMinPrefixLength,
+            @Value("${tmdb.circuit-breaker.failure-threshold}") int circuitFailureThreshold,
+            @Value("${tmdb.circuit-breaker.open-duration}") Duration circuitOpenDuration,
+            @Value("${tmdb.bulkhead.max-concurrent-calls}") int bulkheadMaxConcurrentCalls,
+            @Value("${tmdb.bulkhead.max-wait}") Duration bulkheadMaxWait,
+            @Value("${tmdb.rate-limit.max-wait.interactive}") Duration interactiveMaxWait,
+            @Value("${tmdb.rate-limit.max-wait.search}") Duration searchMaxWait,
+            @Value("${tmdb.rate-limit.max-wait.background}") Duration backgroundMaxWait) {
+        this.restTemplate = restTemplate;
+        this.tmdbExecutor = tmdbExecutor;
+        this.movieRepository = movieRepository;
+        this.movieService = movieService;
+        this.circuitBreaker = new CircuitBreaker(circuitFailureThreshold, circuitOpenDuration);
+        this.bulkhead = new Semaphore(bulkheadMaxConcurrentCalls);
+        this.bulkheadMaxWait = bulkheadMaxWait;
+        this.rateLimiter = tmdbRateLimiter;
+        this.rateLimitMaxWait = new EnumMap<>(Map.of(
+                Priority.INTERACTIVE, interactiveMaxWait,
+                Priority.SEARCH, searchMaxWait,
+                Priority.BACKGROUND, backgroundMaxWait
+        ));
+        this.meterRegistry = meterRegistry;
+        this.responseParser = new TmdbResponseParser(objectMapper.getFactory());
+
+        // Entries older than refreshAfter are still served while a reload runs in the background,
+        // entries older than expireAfter are dropped and the next caller fetches them again.
+        this.movieDetailsCache = Caffeine.newBuilder()
+                .maximumSize(detailsCacheMaxSize)
+                .refreshAfterWrite(detailsRefreshAfter)
+                .expireAfterWrite(detailsExpireAfter)
+                .executor(tmdbExecutor)
+                .recordStats()
+                .build(new CacheLoader<>() {
+                    @Override
+                    public TmdbMovieDetailsDTO load(Long movieId) {
+                        return movieDetailsFlights.execute(movieId,
+                                () -> fetchMovieDetails(movieId, Priority.INTERACTIVE));
+                    }
+
+                    @Override
+                    public TmdbMovieDetailsDTO reload(Long movieId, TmdbMovieDetailsDTO oldValue) {
+                        TmdbMovieDetailsDTO refreshed =
+                                movieDetailsFlights.execute(movieId, () -> fetchMovieDetails(movieId, Priority.BACKGROUND));
+                        return refreshed != null ? refreshed : oldValue;
+                    }
+                });
+
+        // Ids TMDB answered 404 for; without this every view of a bad id would go upstream again.
+        this.missingMovieIds = Caffeine.newBuilder()
+                .maximumSize(detailsCacheMaxSize)
+                .expireAfterWrite(notFoundExpireAfter)
+                .build();
 
-    public TmdbService() {
-        this.restTemplate = new RestTemplate();
-        this.objectMapper = new ObjectMapper();
+        this.searchCache = Caffeine.newBuilder()
+                .maximumSize(searchCacheMaxSize)
+                .expireAfterWrite(searchExpireAfter)
+                .recordStats()
+                .build();
+        this.searchMinPrefixLength = searchMinPrefixLength;
+
+        CaffeineCacheMetrics.monitor(meterRegistry, movieDetailsCache, "tmdb.movieDetails");
+        CaffeineCacheMetrics.monitor(meterRegistry, searchCache, "tmdb.search");
+        Gauge.builder("tmdb.circuit.state", circuitBreaker, breaker -> breaker.getState().ordinal())
+                .description("0 = closed, 1 = open, 2 = half-open")
+                .register(meterRegistry);
+        Gauge.builder("tmdb.bulkhead.available", bulkhead, Semaphore::availablePermits)
+                .register(meterRegistry);
+        for (Priority priority : Priority.values()) {
+            Gauge.builder("tmdb.ratelimit.queued", tmdbRateLimiter, limiter -> limiter.getWaiting(priority))
+                    .tag("priority", priority.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry);
+        }
     }
 
     public TmdbSearchResultsDTO<TmdbMovieSearchDTO> searchMovies(String query) {
-        if (query == null || query.trim().isEmpty()) {
+        return searchMovies(query, 1, TMDB_PAGE_SIZE);
+    }
+
+    public TmdbSearchResultsDTO<TmdbMovieSearchDTO> searchMovies(String query, int page, int pageSize) {
+        return searchMovieRange(query, (page - 1) * pageSize, pageSize);
+    }
+
+    /**
+     * Returns up to {@code count} results starting at result index {@code firstIndex}, assembled from
+     * the (cached) TMDB pages of 20 the range overlaps, and prefetches the TMDB pages needed for the
+     * following range in the background. Returns null when TMDB could not be reached.
+     */
+    public TmdbSearchResultsDTO<TmdbMovieSearchDTO> searchMovieRange(String query, int firstIndex, int count) {
+        String normalizedQuery = SearchQueryNormalizer.normalize(query);
+        if (normalizedQuery.isEmpty() || count <= 0 || firstIndex >= TMDB_MAX_PAGE * TMDB_PAGE_SIZE) {
             return new TmdbSearchResultsDTO<>(List.of(), 0);
         }
 
+        int endIndex = firstIndex + count;
+        int lastTmdbPage = Math.min((endIndex - 1) / TMDB_PAGE_SIZE + 1, TMDB_MAX_PAGE);
+
+        List<TmdbMovieSearchDTO> movies = new ArrayList<>();
+        int totalResults = 0;
+
+        for (int tmdbPage = firstIndex / TMDB_PAGE_SIZE + 1; tmdbPage <= lastTmdbPage; tmdbPage++) {
+            TmdbSearchResultsDTO<TmdbMovieSearchDTO> tmdbResults = getSearchPage(normalizedQuery, tmdbPage);
+            if (tmdbResults == null) {
+                if (movies.isEmpty()) {
+                    return null;
+                }
+                break;
+            }
+
+            totalResults = tmdbResults.totalResults();
+            int pageStart = (tmdbPage - 1) * TMDB_PAGE_SIZE;
+            int from = Math.max(firstIndex - pageStart, 0);
+            int to = Math.min(endIndex - pageStart, tmdbResults.results().size());
+            if (from < to) {
+                movies.addAll(tmdbResults.results().subList(from, to));
+            }
+
+            if (tmdbResults.results().size() < TMDB_PAGE_SIZE) {
+                break;
+            }
+        }
+
+        if (endIndex < totalResults) {
+            prefetchSearchPages(normalizedQuery, endIndex, Math.min(endIndex + count, totalResults));
+        }
+        return new TmdbSearchResultsDTO<>(movies, totalResults);
+    }
+
+    public CompletableFuture<TmdbSearchResultsDTO<TmdbMovieSearchDTO>> searchMoviesAsync(String query) {
+        TmdbSearchResultsDTO<TmdbMovieSearchDTO> cached =
+                searchCache.getIfPresent(new SearchPageKey(SearchQueryNormalizer.normalize(query), 1));
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        return CompletableFuture.supplyAsync(() -> searchMovies(query), tmdbExecutor);
+    }
+
+    private void prefetchSearchPages(String normalizedQuery, int firstIndex, int endIndex) {
+        int lastTmdbPage = Math.min((endIndex - 1) / TMDB_PAGE_SIZE + 1, TMDB_MAX_PAGE);
+
+        for (int tmdbPage = firstIndex / TMDB_PAGE_SIZE + 1; tmdbPage <= lastTmdbPage; tmdbPage++) {
+            SearchPageKey key = new SearchPageKey(normalizedQuery, tmdbPage);
+            if (searchCache.getIfPresent(key) != null) {
+                continue;
+            }
+
+            try {
+                tmdbExecutor.execute(() -> searchFlights.execute(key, () -> loadSearchPage(key, Priority.BACKGROUND)));
+            } catch (RejectedExecutionException e) {
+                logger.debug("Skipping prefetch of search page {} for '{}': executor is busy", tmdbPage, normalizedQuery);
+                return;
+            }
+        }
+    }
+
+    private TmdbSearchResultsDTO<TmdbMovieSearchDTO> getSearchPage(String normalizedQuery, int tmdbPage) {
+        SearchPageKey key = new SearchPageKey(normalizedQuery, tmdbPage);
+
+        TmdbSearchResultsDTO<TmdbMovieSearchDTO> results = searchCache.getIfPresent(key);
+        if (results == null) {
+            results = searchFlights.execute(key, () -> loadSearchPage(key, Priority.SEARCH));
+        }
+        return results;
+    }
+
+    private TmdbSearchResultsDTO<TmdbMovieSearchDTO> loadSearchPage(SearchPageKey key, Priority priority) {
+        // Another flight may have filled the entry between our cache check and joining this one.
+        TmdbSearchResultsDTO<TmdbMovieSearchDTO> results = searchCache.getIfPresent(key);
+        if (results != null) {
+            return results;
+        }
+
+        if (key.page() == 1) {
+            results = searchFromCachedPrefix(key.query());
+        }
+        if (results == null) {
+            results = fetchSearchResults(key.query(), key.page(), priority);
+        }
+        if (results != null) {
+            searchCache.put(key, results);
+        }
+        return results;
+    }
+
+    /**
+     * While typing, "matr" is usually cached by the time "matrix" arrives. If the shorter query's
+     * result set was complete (everything fit on one TMDB page), the longer query's results are
+     * a subset of it and can be filtered locally instead of asking TMDB again.
+     */
+    private TmdbSearchResultsDTO<TmdbMovieSearchDTO> searchFromCachedPrefix(String normalizedQuery) {
+        for (int length = normalizedQuery.length() - 1; length >= searchMinPrefixLength; length--) {
+            TmdbSearchResultsDTO<TmdbMovieSearchDTO> prefixResults =
+                    searchCache.getIfPresent(new SearchPageKey(normalizedQuery.substring(0, length), 1));
+
+            if (prefixResults == null) {
+                continue;
+            }
+            if (prefixResults.results().size() < prefixResults.totalResults()) {
+                return null;
+            }
+
+            List<TmdbMovieSearchDTO> movies = prefixResults.results().stream()
+                    .filter(movie -> SearchQueryNormalizer.matchesTitle(normalizedQuery, movie.title()))
+                    .toList();
+            return new TmdbSearchResultsDTO<>(movies, movies.size());
+        }
+        return null;
+    }
+
+    private TmdbSearchResultsDTO<TmdbMovieSearchDTO> fetchSearchResults(String query, int page, Priority priority) {
         String url = UriComponentsBuilder.fromHttpUrl(baseUrl + "/search/movie")
                 .queryParam("api_key", apiKey)
                 .queryParam("query", query)
                 .queryParam("language", "en-US")
+                .queryParam("page", page)
                 .toUriString();
 
         try {
-            String response = restTemplate.getForObject(url, String.class);
+            TmdbSearchResultsDTO<TmdbMovieSearchDTO> results =
+                    executeTmdbRequest(url, priority, response -> responseParser.parseSearchResults(response.getBody()));
 
-            if (response == null) {
+            if (results == null) {
                 logger.error("TMDB search returned null response");
-                return new TmdbSearchResultsDTO<>(List.of(), 0);
-            }
-
-            JsonNode root = objectMapper.readTree(response);
-
-            List<TmdbMovieSearchDTO> movies = new ArrayList<>();
-            JsonNode results = root.get("results");
-
-            if (results != null && results.isArray()) {
-                for (JsonNode movieNode : results) {
-                    if (movieNode.has("id") && !movieNode.get("id").isNull()) {
-                        movies.add(new TmdbMovieSearchDTO(
-                                movieNode.get("id").asLong(),
-                                movieNode.has("title") ? movieNode.get("title").asText() : "",
-                                movieNode.has("release_date") ? movieNode.get("release_date").asText() : null,
-                                movieNode.has("poster_path") && !movieNode.get("poster_path").isNull()
-                                        ? movieNode.get("poster_path").asText() : null
-                        ));
-                    }
-                }
             }
+            return results;
 
-            int totalResults = root.has("total_results") ? root.get("total_results").asInt() : 0;
-            return new TmdbSearchResultsDTO<>(movies, totalResults);
-
+        } catch (TmdbUnavailableException e) {
+            logger.warn("TMDB search for '{}' skipped: {}", query, e.getMessage());
+            return null;
         } catch (Exception e) {
             logger.error("Error searching movies: {}", e.getMessage(), e);
-            return new TmdbSearchResultsDTO<>(List.of(), 0);
+            return null;
         }
     }
 
@@ -84,48 +326,131 @@ public class TmdbService {
             return null;
         }
 
+        if (missingMovieIds.getIfPresent(movieId) != null) {
+            return findLocalMovieDetails(movieId);
+        }
+
+        TmdbMovieDetailsDTO movieDetails = movieDetailsCache.get(movieId);
+        return movieDetails != null ? movieDetails : findLocalMovieDetails(movieId);
+    }
+
+    private TmdbMovieDetailsDTO findLocalMovieDetails(Long movieId) {
+        return movieRepository.findWithDetailsById(movieId)
+                .map(movie -> movieService.toMovieDetailsDTO(movie, null))
+                .orElse(null);
+    }
+
+    public CompletableFuture<TmdbMovieDetailsDTO> getMovieDetailsAsync(Long movieId) {
+        if (movieId == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        TmdbMovieDetailsDTO cached = movieDetailsCache.getIfPresent(movieId);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        return CompletableFuture.supplyAsync(() -> getMovieDetails(movieId), tmdbExecutor);
+    }
+
+    private TmdbMovieDetailsDTO fetchMovieDetails(Long movieId, Priority priority) {
         String movieUrl = UriComponentsBuilder.fromHttpUrl(baseUrl + "/movie/" + movieId)
                 .queryParam("api_key", apiKey)
                 .queryParam("language", "en-US")
+                .queryParam("append_to_response", "credits")
                 .toUriString();
 
         try {
-            String movieResponse = restTemplate.getForObject(movieUrl, String.class);
+            TmdbMovieDetailsDTO movieDetails =
+                    executeTmdbRequest(movieUrl, priority, response -> responseParser.parseMovieDetails(response.getBody()));
 
-            if (movieResponse == null) {
+            if (movieDetails == null) {
                 logger.error("TMDB movie details returned null response for movieId: {}", movieId);
-                return null;
             }
+            return movieDetails;
 
-            JsonNode movieRoot = objectMapper.readTree(movieResponse);
+        } catch (TmdbUnavailableException e) {
+            logger.warn("TMDB movie details for movieId {} skipped: {}", movieId, e.getMessage());
+            return null;
+        } catch (HttpClientErrorException.NotFound e) {
+            logger.info("Movie {} not found in TMDB", movieId);
+            missingMovieIds.put(movieId, true);
+            return null;
+        } catch (Exception e) {
+            logger.error("Error getting movie details for movieId {}: {}", movieId, e.getMessage(), e);
+            return null;
+        }
+    }
 
-            if (movieRoot != null && movieRoot.has("id")) {
-                List<String> genres = new ArrayList<>();
-                if (movieRoot.has("genres") && movieRoot.get("genres").isArray()) {
-                    for (JsonNode genreNode : movieRoot.get("genres")) {
-                        if (genreNode.has("name")) {
-                            genres.add(genreNode.get("name").asText());
-                        }
-                    }
-                }
+    /**
+     * Every outbound TMDB call goes through here. The circuit breaker fails calls fast while TMDB
+     * keeps failing, the bulkhead caps how many request threads can be waiting on TMDB at once, and
+     * only then does the rate limiter hand out a token, keeping us under TMDB's request rate and
+     * letting detail lookups go before search and search before background work. 4xx responses mean
+     * TMDB is up and answering, so they do not count as failures.
+     */
+    private <T> T executeTmdbRequest(String url, Priority priority, ResponseExtractor<T> extractor) {
+        if (!circuitBreaker.tryAcquirePermission()) {
+            throw new TmdbUnavailableException("circuit breaker is open");
+        }
+
+        // The token is taken before a bulkhead slot, so calls waiting in a slow lane cannot fill the
+        // bulkhead and turn away interactive calls before the priority limiter gets to order them.
+        try {
+            acquireRateLimit(priority);
+        } catch (TmdbUnavailableException e) {
+            circuitBreaker.releasePermission();
+            throw e;
+        }
 
-                return new TmdbMovieDetailsDTO(
-                        movieRoot.get("id").asLong(),
-                        movieRoot.has("title") ? movieRoot.get("title").asText() : "",
-                        movieRoot.has("release_date") ? movieRoot.get("release_date").asText() : null,
-                        movieRoot.has("overview") ? movieRoot.get("overview").asText() : "",
-                        genres,
-                        null,  // comments
-                        movieRoot.has("poster_path") && !movieRoot.get("poster_path").isNull()
-                                ? movieRoot.get("poster_path").asText() : null
-                );
+        try {
+            if (!bulkhead.tryAcquire(bulkheadMaxWait.toMillis(), TimeUnit.MILLISECONDS)) {
+                circuitBreaker.releasePermission();
+                throw new TmdbUnavailableException("too many concurrent TMDB calls");
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            circuitBreaker.releasePermission();
+            throw new TmdbUnavailableException("interrupted while waiting for a TMDB slot");
+        }
 
-            return null;
+        try {
+            T result = restTemplate.execute(url, HttpMethod.GET, null, extractor);
+            circuitBreaker.onSuccess();
+            return result;
+        } catch (HttpClientErrorException e) {
+            if (e.getStatusCode() == HttpStatus.TOO_MANY_REQUESTS) {
+                circuitBreaker.onFailure();
+            } else {
+                circuitBreaker.onSuccess();
+            }
+            throw e;
+        } catch (RuntimeException e) {
+            circuitBreaker.onFailure();
+            throw e;
+        } finally {
+            bulkhead.release();
+        }
+    }
 
-        } catch (Exception e) {
-            logger.error("Error getting movie details for movieId {}: {}", movieId, e.getMessage(), e);
-            return null;
+    private void acquireRateLimit(Priority priority) {
+        long startedAt = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = rateLimiter.tryAcquire(priority, rateLimitMaxWait.get(priority));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TmdbUnavailableException("interrupted while waiting for the TMDB rate limit");
+        }
+
+        String lane = priority.name().toLowerCase(Locale.ROOT);
+        Timer.builder("tmdb.ratelimit.wait")
+                .tag("priority", lane)
+                .tag("acquired", Boolean.toString(acquired))
+                .register(meterRegistry)
+                .record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+
+        if (!acquired) {
+            throw new TmdbUnavailableException("TMDB rate limit reached for " + lane + " requests");
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,7 @@
+package cz.osu.opr3_final_project.services;
+
+public class TmdbUnavailableException extends RuntimeException {
+    public TmdbUnavailableException(String message) {
+        super(message);
+    }
+}
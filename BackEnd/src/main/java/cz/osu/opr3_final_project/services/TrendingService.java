@@ -0,0 +1,195 @@
+package cz.osu.opr3_final_project.services;
+
+import cz.osu.opr3_final_project.dtos.TrendingMovieDTO;
+import cz.osu.opr3_final_project.logging.MovieActivityEvent;
+import cz.osu.opr3_final_project.model.entities.Movie;
+import cz.osu.opr3_final_project.repositories.MovieRepository;
+import cz.osu.opr3_final_project.utils.SlidingWindowTopK;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the movies with the most likes and comments over the last {@code trending.window} in memory.
+ * Live activity arrives as {@link MovieActivityEvent}s; on startup the window is replayed from the
+ * database into a fresh instance, which replaces the live one together with the events that arrived
+ * in the meantime.
+ * <p>
+ * Like the rebuild, which reads only current likes and comments, the window counts each like and
+ * comment once: a like or comment already counted is ignored, and an unlike or deletion withdraws
+ * what was counted for it.
+ */
+@Service
+public class TrendingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrendingService.class);
+
+    // Both columns hold UTC wall-clock time: liked_at by its default, comments.timestamp because
+    // Hibernate writes it with hibernate.jdbc.time_zone=UTC (see V13 migration).
+    private static final String SELECT_RECENT_ACTIVITY = """
+            SELECT movie_id, user_id AS source_id, liked_at AS occurred_at, 'LIKE' AS type
+            FROM users_favourite_movies WHERE liked_at > ? AND liked_at <= ?
+            UNION ALL
+            SELECT movie_id, id AS source_id, timestamp AS occurred_at, 'COMMENT' AS type
+            FROM comments WHERE timestamp > ? AND timestamp <= ? AND movie_id IS NOT NULL
+            ORDER BY occurred_at
+            """;
+
+    private record Activity(boolean like, long movieId, long sourceId) {
+    }
+
+    /**
+     * The sketch together with the activities counted in it and when each happened, in that order.
+     */
+    private static final class ActivityWindow {
+        private final SlidingWindowTopK topK;
+        private final LinkedHashMap<Activity, Long> counted = new LinkedHashMap<>();
+
+        private ActivityWindow(SlidingWindowTopK topK) {
+            this.topK = topK;
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MovieRepository movieRepository;
+    private final Supplier<SlidingWindowTopK> topKFactory;
+    private final Duration window;
+
+    private final Object rebuildLock = new Object();
+    // Swapped by a rebuild; the activities counted in it change only under rebuildLock.
+    private volatile ActivityWindow activityWindow;
+    // Live events seen while a rebuild reads the database; null when no rebuild is running.
+    private List<MovieActivityEvent> eventsDuringRebuild;
+    private final long likeWeight;
+    private final long commentWeight;
+
+    public TrendingService(
+            JdbcTemplate jdbcTemplate,
+            MovieRepository movieRepository,
+            @Value("${trending.window}") Duration window,
+            @Value("${trending.buckets}") int buckets,
+            @Value("${trending.capacity}") int capacity,
+            @Value("${trending.sketch.width}") int sketchWidth,
+            @Value("${trending.sketch.depth}") int sketchDepth,
+            @Value("${trending.weight.like}") long likeWeight,
+            @Value("${trending.weight.comment}") long commentWeight) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.movieRepository = movieRepository;
+        this.topKFactory = () -> new SlidingWindowTopK(window, buckets, capacity, sketchWidth, sketchDepth);
+        this.activityWindow = new ActivityWindow(topKFactory.get());
+        this.window = window;
+        this.likeWeight = likeWeight;
+        this.commentWeight = commentWeight;
+    }
+
+    @EventListener
+    public void onMovieActivity(MovieActivityEvent event) {
+        synchronized (rebuildLock) {
+            if (eventsDuringRebuild != null) {
+                eventsDuringRebuild.add(event);
+            }
+            record(activityWindow, event);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long startedAt = System.nanoTime();
+        Instant until = Instant.now();
+        LocalDateTime sinceUtc = LocalDateTime.ofInstant(until.minus(window), ZoneOffset.UTC);
+        LocalDateTime untilUtc = LocalDateTime.ofInstant(until, ZoneOffset.UTC);
+        long[] events = {0};
+
+        synchronized (rebuildLock) {
+            eventsDuringRebuild = new ArrayList<>();
+        }
+
+        // The live window keeps serving reads and taking events until the rebuilt one replaces it.
+        ActivityWindow rebuilt = new ActivityWindow(topKFactory.get());
+        try {
+            jdbcTemplate.query(SELECT_RECENT_ACTIVITY, (RowCallbackHandler) resultSet -> {
+                Instant occurredAt = resultSet.getObject("occurred_at", LocalDateTime.class).toInstant(ZoneOffset.UTC);
+                MovieActivityEvent.Type type = MovieActivityEvent.Type.valueOf(resultSet.getString("type"));
+                record(rebuilt, new MovieActivityEvent(resultSet.getLong("movie_id"), type, resultSet.getLong("source_id"), occurredAt));
+                events[0]++;
+            }, sinceUtc, untilUtc, sinceUtc, untilUtc);
+        } catch (RuntimeException e) {
+            synchronized (rebuildLock) {
+                eventsDuringRebuild = null;
+            }
+            throw e;
+        }
+
+        synchronized (rebuildLock) {
+            // Whether the database read saw these or not, replaying them is safe: activities already
+            // counted are skipped and withdrawals only remove what was counted.
+            eventsDuringRebuild.forEach(event -> record(rebuilt, event));
+            eventsDuringRebuild = null;
+            activityWindow = rebuilt;
+        }
+
+        logger.info("Trending window rebuilt from {} events in {} ms",
+                events[0], (System.nanoTime() - startedAt) / 1_000_000);
+    }
+
+    public List<TrendingMovieDTO> getTrendingMovies(int limit) {
+        List<SlidingWindowTopK.Entry> entries = activityWindow.topK.top(limit);
+        Map<Long, Movie> movies = movieRepository.findAllById(entries.stream().map(SlidingWindowTopK.Entry::key).toList())
+                .stream()
+                .collect(Collectors.toMap(Movie::getId, Function.identity()));
+
+        return entries.stream()
+                .filter(entry -> movies.containsKey(entry.key()))
+                .map(entry -> {
+                    Movie movie = movies.get(entry.key());
+                    return new TrendingMovieDTO(movie.getId(), movie.getTitle(), movie.getPosterUrl(), entry.count());
+                })
+                .toList();
+    }
+
+    private void record(ActivityWindow target, MovieActivityEvent event) {
+        long occurredAt = event.occurredAt().toEpochMilli();
+        forgetExpired(target, occurredAt - window.toMillis());
+
+        MovieActivityEvent.Type type = event.type();
+        boolean like = type == MovieActivityEvent.Type.LIKE || type == MovieActivityEvent.Type.UNLIKE;
+        Activity activity = new Activity(like, event.movieId(), event.sourceId());
+        long weight = like ? likeWeight : commentWeight;
+
+        if (type == MovieActivityEvent.Type.LIKE || type == MovieActivityEvent.Type.COMMENT) {
+            if (target.counted.putIfAbsent(activity, occurredAt) == null) {
+                target.topK.add(event.movieId(), weight, occurredAt);
+            }
+        } else {
+            Long countedAt = target.counted.remove(activity);
+            if (countedAt != null) {
+                target.topK.add(event.movieId(), -weight, countedAt);
+            }
+        }
+    }
+
+    private void forgetExpired(ActivityWindow target, long windowStart) {
+        Iterator<Long> countedTimes = target.counted.values().iterator();
+        while (countedTimes.hasNext() && countedTimes.next() <= windowStart) {
+            countedTimes.remove();
+        }
+    }
+}
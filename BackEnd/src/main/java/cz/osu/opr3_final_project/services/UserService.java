@@ -1,28 +1,92 @@
 package cz.osu.opr3_final_project.services;
 
 import cz.osu.opr3_final_project.dtos.CommentDTO;
+import cz.osu.opr3_final_project.dtos.CommentPageDTO;
+import cz.osu.opr3_final_project.dtos.FavoriteMoviePageDTO;
 import cz.osu.opr3_final_project.dtos.MovieSummaryDTO;
 import cz.osu.opr3_final_project.dtos.UserProfileDTO;
-import cz.osu.opr3_final_project.model.entities.User;
-import cz.osu.opr3_final_project.repositories.UserRepository;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import cz.osu.opr3_final_project.repositories.CommentRepository;
+import cz.osu.opr3_final_project.utils.KeysetCursor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.List;
 
 @Service
 public class UserService {
 
-    private static final Logger logger = LoggerFactory.getLogger(UserService.class);
+    private static final String SELECT_PROFILE = """
+            SELECT u.id, u.username,
+                   (SELECT count(*) FROM users_favourite_movies f WHERE f.user_id = u.id) AS total_favorites,
+                   (SELECT count(*) FROM comments c WHERE c.user_id = u.id) AS total_comments
+            FROM users u WHERE u.id = ?
+            """;
+    private static final String COUNT_FAVORITES = """
+            SELECT count(*) FROM users_favourite_movies WHERE user_id = ?
+            """;
+    private static final String COUNT_COMMENTS = """
+            SELECT count(*) FROM comments WHERE user_id = ?
+            """;
+    private static final String SELECT_COMMENTED_MOVIE_IDS = """
+            SELECT DISTINCT movie_id FROM comments WHERE user_id = ?
+            """;
+    // Release dates are stored as TMDB sends them (yyyy-MM-dd or empty); movies without a year get 0.
+    private static final String SELECT_FAVORITES = """
+            SELECT m.id, m.title, m.poster_url, f.liked_at,
+                   CASE WHEN m.release_date ~ '^[0-9]{4}' THEN CAST(substr(m.release_date, 1, 4) AS integer)
+                        ELSE 0 END AS release_year
+            FROM users_favourite_movies f JOIN movies m ON m.id = f.movie_id
+            WHERE f.user_id = ?
+            ORDER BY f.liked_at DESC, f.movie_id DESC
+            LIMIT ?
+            """;
+    private static final String SELECT_FAVORITES_BEFORE = """
+            SELECT m.id, m.title, m.poster_url, f.liked_at,
+                   CASE WHEN m.release_date ~ '^[0-9]{4}' THEN CAST(substr(m.release_date, 1, 4) AS integer)
+                        ELSE 0 END AS release_year
+            FROM users_favourite_movies f JOIN movies m ON m.id = f.movie_id
+            WHERE f.user_id = ? AND (f.liked_at, f.movie_id) < (?, ?)
+            ORDER BY f.liked_at DESC, f.movie_id DESC
+            LIMIT ?
+            """;
+
+    private record FavoriteRow(MovieSummaryDTO movie, Instant likedAt) {
+    }
+
+    private record Page<T>(List<T> items, String nextCursor) {
+    }
+
+    private static final RowMapper<FavoriteRow> FAVORITE_ROW_MAPPER = (resultSet, rowNum) -> new FavoriteRow(
+            new MovieSummaryDTO(
+                    resultSet.getLong("id"),
+                    resultSet.getString("title"),
+                    resultSet.getString("poster_url"),
+                    resultSet.getInt("release_year")),
+            // liked_at is stored as UTC without a zone
+            resultSet.getObject("liked_at", LocalDateTime.class).toInstant(ZoneOffset.UTC));
+
     private final PasswordEncoder passwordEncoder;
-    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final CommentRepository commentRepository;
+    private final int profilePageSize;
 
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
-        this.userRepository = userRepository;
+    public UserService(
+            JdbcTemplate jdbcTemplate,
+            CommentRepository commentRepository,
+            PasswordEncoder passwordEncoder,
+            @Value("${profile.page-size}") int profilePageSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.commentRepository = commentRepository;
         this.passwordEncoder = passwordEncoder;
+        this.profilePageSize = profilePageSize;
     }
 
     public String hashPassword(String password) {
@@ -33,64 +97,103 @@ public class UserService {
         return passwordEncoder.matches(rawPassword, hashedPassword);
     }
 
+    /**
+     * Returns the user's counts together with the newest page of their favourites and comments. The
+     * remaining items are served by {@link #getFavoriteMoviePage} and {@link #getCommentPage}.
+     */
     public UserProfileDTO getUserProfile(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));  // Controller handles this
-
-        List<MovieSummaryDTO> favoriteMovies = new ArrayList<>();
-
-        if (user.getFavouriteMovies() != null) {
-            user.getFavouriteMovies().forEach(movie -> {
-                try {
-                    Integer year = null;
-                    if (movie.getReleaseDate() != null && movie.getReleaseDate().length() >= 4) {
-                        String yearString = movie.getReleaseDate().substring(0, 4);
-                        try {
-                            year = Integer.parseInt(yearString);
-                        } catch (NumberFormatException e) {
-                            logger.warn("Invalid year format in release date: {}", movie.getReleaseDate());
-                            year = null;
-                        }
-                    }
-
-                    favoriteMovies.add(new MovieSummaryDTO(
-                            movie.getId(),
-                            movie.getTitle(),
-                            movie.getPosterUrl(),
-                            year != null ? year : 0
-                    ));
-                } catch (Exception e) {
-                    logger.error("Error processing movie {}: {}", movie.getId(), e.getMessage());
-                }
-            });
-        }
+        List<UserProfileDTO> counts = jdbcTemplate.query(SELECT_PROFILE, (resultSet, rowNum) -> new UserProfileDTO(
+                resultSet.getLong("id"),
+                resultSet.getString("username"),
+                resultSet.getLong("total_favorites"),
+                resultSet.getLong("total_comments"),
+                List.of(),
+                null,
+                List.of(),
+                null
+        ), userId);
 
-        List<CommentDTO> comments = new ArrayList<>();
-
-        if (user.getComments() != null) {
-            user.getComments().forEach(comment -> {
-                try {
-                    comments.add(new CommentDTO(
-                            comment.getId(),
-                            comment.getUser().getUsername(),
-                            comment.getContent(),
-                            comment.getTimestamp().toString(),
-                            comment.getMovie().getTitle(),
-                            comment.getMovie().getId()
-                    ));
-                } catch (Exception e) {
-                    logger.error("Error processing comment {}: {}", comment.getId(), e.getMessage());
-                }
-            });
+        if (counts.isEmpty()) {
+            throw new RuntimeException("User not found");  // Controller handles this
         }
 
+        UserProfileDTO profile = counts.getFirst();
+        Page<MovieSummaryDTO> favorites = findFavorites(userId, null, profilePageSize);
+        Page<CommentDTO> comments = findComments(userId, null, profilePageSize);
         return new UserProfileDTO(
-                user.getId(),
-                user.getUsername(),
-                favoriteMovies.size(),
-                comments.size(),
-                favoriteMovies,
-                comments
+                profile.id(),
+                profile.username(),
+                profile.totalFavorites(),
+                profile.totalComments(),
+                favorites.items(),
+                favorites.nextCursor(),
+                comments.items(),
+                comments.nextCursor()
         );
     }
-}
\ No newline at end of file
+
+    /**
+     * Returns up to {@code size} of the user's favourite movies, most recently liked first, starting
+     * after the given cursor (or from the newest like when it is null).
+     */
+    public FavoriteMoviePageDTO getFavoriteMoviePage(Long userId, String cursor, int size) {
+        Page<MovieSummaryDTO> page = findFavorites(userId, cursor, size);
+        Long totalCount = jdbcTemplate.queryForObject(COUNT_FAVORITES, Long.class, userId);
+        return new FavoriteMoviePageDTO(page.items(), totalCount, page.nextCursor());
+    }
+
+    /**
+     * Returns up to {@code size} of the user's comments, newest first, starting after the given cursor
+     * (or from the newest comment when it is null).
+     */
+    public CommentPageDTO getCommentPage(Long userId, String cursor, int size) {
+        Page<CommentDTO> page = findComments(userId, cursor, size);
+        Long totalCount = jdbcTemplate.queryForObject(COUNT_COMMENTS, Long.class, userId);
+        return new CommentPageDTO(page.items(), totalCount, page.nextCursor());
+    }
+
+    public List<Long> findCommentedMovieIds(Long userId) {
+        return jdbcTemplate.queryForList(SELECT_COMMENTED_MOVIE_IDS, Long.class, userId);
+    }
+
+    private Page<MovieSummaryDTO> findFavorites(Long userId, String cursor, int size) {
+        List<FavoriteRow> rows;
+        if (cursor == null) {
+            rows = jdbcTemplate.query(SELECT_FAVORITES, FAVORITE_ROW_MAPPER, userId, size + 1);
+        } else {
+            KeysetCursor position = KeysetCursor.decode(cursor);
+            rows = jdbcTemplate.query(SELECT_FAVORITES_BEFORE, FAVORITE_ROW_MAPPER,
+                    userId, LocalDateTime.ofInstant(position.timestamp(), ZoneOffset.UTC), position.id(), size + 1);
+        }
+
+        String nextCursor = null;
+        if (rows.size() > size) {
+            rows = rows.subList(0, size);
+            FavoriteRow last = rows.get(size - 1);
+            nextCursor = new KeysetCursor(last.likedAt(), last.movie().id()).encode();
+        }
+
+        List<MovieSummaryDTO> movies = new ArrayList<>(rows.size());
+        rows.forEach(row -> movies.add(row.movie()));
+        return new Page<>(movies, nextCursor);
+    }
+
+    private Page<CommentDTO> findComments(Long userId, String cursor, int size) {
+        List<CommentDTO> comments;
+        if (cursor == null) {
+            comments = commentRepository.findNewestCommentDTOsByUser(userId, Limit.of(size + 1));
+        } else {
+            KeysetCursor position = KeysetCursor.decode(cursor);
+            comments = commentRepository.findCommentDTOsByUserBefore(
+                    userId, position.timestamp(), position.id(), Limit.of(size + 1));
+        }
+
+        String nextCursor = null;
+        if (comments.size() > size) {
+            comments = comments.subList(0, size);
+            CommentDTO last = comments.get(size - 1);
+            nextCursor = new KeysetCursor(Instant.parse(last.timestamp()), last.id()).encode();
+        }
+        return new Page<>(comments, nextCursor);
+    }
+}
@@ -0,0 +1,33 @@
+package cz.osu.opr3_final_project.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Keyset position in a newest-first list: the (timestamp, id) of the last row on a page, e.g. a
+ * comment or a liked movie. Clients receive it as an opaque URL-safe string and send it back to get
+ * the next page.
+ */
+public record KeysetCursor(Instant timestamp, Long id) {
+
+    public String encode() {
+        String value = timestamp.getEpochSecond() + "." + timestamp.getNano() + "." + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String cursor) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = value.split("\\.");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            Instant timestamp = Instant.ofEpochSecond(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+            return new KeysetCursor(timestamp, Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException | DateTimeException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
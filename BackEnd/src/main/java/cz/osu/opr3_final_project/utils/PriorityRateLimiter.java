@@ -0,0 +1,102 @@
+package cz.osu.opr3_final_project.utils;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket shared by several priority lanes. A caller only gets a token when no caller of a
+ * higher priority is waiting, so under load the lower lanes wait (and time out) first.
+ */
+public class PriorityRateLimiter {
+
+    /**
+     * Declared from highest to lowest priority.
+     */
+    public enum Priority { INTERACTIVE, SEARCH, BACKGROUND }
+
+    private static final Priority[] PRIORITIES = Priority.values();
+
+    private final double tokensPerNano;
+    private final double capacity;
+    private final LongSupplier nanoClock;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition stateChanged = lock.newCondition();
+    private final int[] waiting = new int[PRIORITIES.length];
+
+    private double tokens;
+    private long lastRefill;
+
+    public PriorityRateLimiter(double permitsPerSecond, int burst) {
+        this(permitsPerSecond, burst, System::nanoTime);
+    }
+
+    PriorityRateLimiter(double permitsPerSecond, int burst, LongSupplier nanoClock) {
+        this.tokensPerNano = permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.capacity = burst;
+        this.nanoClock = nanoClock;
+        this.tokens = burst;
+        this.lastRefill = nanoClock.getAsLong();
+    }
+
+    /**
+     * Waits up to {@code maxWait} for a token and returns false if none could be taken in time.
+     */
+    public boolean tryAcquire(Priority priority, Duration maxWait) throws InterruptedException {
+        long deadline = nanoClock.getAsLong() + maxWait.toNanos();
+
+        lock.lock();
+        try {
+            waiting[priority.ordinal()]++;
+            try {
+                while (true) {
+                    refill();
+                    boolean outranked = isHigherPriorityWaiting(priority);
+                    if (tokens >= 1 && !outranked) {
+                        tokens -= 1;
+                        return true;
+                    }
+
+                    long remaining = deadline - nanoClock.getAsLong();
+                    if (remaining <= 0) {
+                        return false;
+                    }
+
+                    long untilNextToken = tokens >= 1 ? remaining : (long) Math.ceil((1 - tokens) / tokensPerNano);
+                    stateChanged.awaitNanos(Math.max(1, Math.min(remaining, untilNextToken)));
+                }
+            } finally {
+                waiting[priority.ordinal()]--;
+                stateChanged.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getWaiting(Priority priority) {
+        lock.lock();
+        try {
+            return waiting[priority.ordinal()];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean isHigherPriorityWaiting(Priority priority) {
+        for (int i = 0; i < priority.ordinal(); i++) {
+            if (waiting[i] > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void refill() {
+        long now = nanoClock.getAsLong();
+        tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+        lastRefill = now;
+    }
+}
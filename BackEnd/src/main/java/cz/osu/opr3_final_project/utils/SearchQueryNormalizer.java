@@ -0,0 +1,65 @@
+package cz.osu.opr3_final_project.utils;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+public final class SearchQueryNormalizer {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern WORD_SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private SearchQueryNormalizer() {
+    }
+
+    /**
+     * Folds case, accents and compatibility characters and collapses whitespace,
+     * so "Amélie ", "amelie" and "AMÉLIE" all map to the same key.
+     */
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+
+        String folded = Normalizer.normalize(text, Normalizer.Form.NFKD);
+        folded = COMBINING_MARKS.matcher(folded).replaceAll("");
+        return WHITESPACE.matcher(folded.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    /**
+     * Splits lower-cased text into its letter/digit runs, without folding accents.
+     */
+    public static List<String> words(String text) {
+        if (text == null) {
+            return List.of();
+        }
+
+        return Arrays.stream(WORD_SEPARATORS.split(text.toLowerCase(Locale.ROOT)))
+                .filter(word -> !word.isEmpty())
+                .toList();
+    }
+
+    /**
+     * Returns true when every word of the normalized query is a prefix of some word in the title.
+     */
+    public static boolean matchesTitle(String normalizedQuery, String title) {
+        List<String> titleWords = words(normalize(title));
+
+        for (String queryWord : words(normalizedQuery)) {
+            boolean found = false;
+            for (String titleWord : titleWords) {
+                if (titleWord.startsWith(queryWord)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,226 @@
+package cz.osu.opr3_final_project.utils;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.function.LongSupplier;
+
+/**
+ * Approximate heavy hitters over a sliding time window. Event counts are kept in a count-min sketch
+ * per time bucket plus a running sum of all live buckets; when a bucket leaves the window its counts
+ * are subtracted from the sum. The {@code capacity} keys with the highest estimates are tracked in a
+ * min-heap, so reading the top keys never scans the sketch.
+ */
+public class SlidingWindowTopK {
+
+    public record Entry(long key, long count) {}
+
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private final long bucketMillis;
+    private final int bucketCount;
+    private final int capacity;
+    private final int width;
+    private final long[] rowSeeds;
+    private final LongSupplier millisClock;
+
+    private final long[][][] buckets;
+    private final long[][] window;
+    private final long[] bucketEpochs;
+    private long headEpoch = EMPTY;
+
+    // Heap entries are {key, count}; entries whose count no longer matches candidates are stale.
+    private final Map<Long, Long> candidates = new HashMap<>();
+    private final PriorityQueue<long[]> candidateHeap = new PriorityQueue<>(Comparator.comparingLong(entry -> entry[1]));
+
+    public SlidingWindowTopK(Duration window, int bucketCount, int capacity, int sketchWidth, int sketchDepth) {
+        this(window, bucketCount, capacity, sketchWidth, sketchDepth, System::currentTimeMillis);
+    }
+
+    SlidingWindowTopK(Duration window, int bucketCount, int capacity, int sketchWidth, int sketchDepth,
+                      LongSupplier millisClock) {
+        this.bucketMillis = Math.max(1, window.toMillis() / bucketCount);
+        this.bucketCount = bucketCount;
+        this.capacity = capacity;
+        this.width = sketchWidth;
+        this.millisClock = millisClock;
+
+        this.buckets = new long[bucketCount][sketchDepth][sketchWidth];
+        this.window = new long[sketchDepth][sketchWidth];
+        this.bucketEpochs = new long[bucketCount];
+        Arrays.fill(bucketEpochs, EMPTY);
+
+        this.rowSeeds = new long[sketchDepth];
+        SplittableRandom random = new SplittableRandom(0x5EEDL);
+        for (int row = 0; row < sketchDepth; row++) {
+            rowSeeds[row] = random.nextLong();
+        }
+    }
+
+    public synchronized void add(long key, long weight) {
+        add(key, weight, millisClock.getAsLong());
+    }
+
+    /**
+     * Counts an event that happened at {@code timestampMillis}; a negative weight withdraws an event
+     * counted earlier at that time. Events older than the window are ignored.
+     */
+    public synchronized void add(long key, long weight, long timestampMillis) {
+        long epoch = Math.floorDiv(timestampMillis, bucketMillis);
+        advance(Math.max(epoch, Math.floorDiv(millisClock.getAsLong(), bucketMillis)));
+        if (epoch <= headEpoch - bucketCount) {
+            return;
+        }
+
+        int slot = slot(epoch);
+        bucketEpochs[slot] = epoch;
+
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < rowSeeds.length; row++) {
+            int column = column(key, row);
+            buckets[slot][row][column] += weight;
+            window[row][column] += weight;
+            estimate = Math.min(estimate, window[row][column]);
+        }
+        if (weight > 0) {
+            offer(key, estimate);
+        } else {
+            lower(key, estimate);
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} keys with the highest estimated counts in the current window.
+     */
+    public synchronized List<Entry> top(int limit) {
+        advance(Math.floorDiv(millisClock.getAsLong(), bucketMillis));
+
+        List<Entry> entries = new ArrayList<>(candidates.size());
+        candidates.forEach((key, count) -> entries.add(new Entry(key, count)));
+        entries.sort(Comparator.comparingLong(Entry::count).reversed().thenComparingLong(Entry::key));
+        return entries.size() > limit ? entries.subList(0, limit) : entries;
+    }
+
+    public synchronized void clear() {
+        for (long[][] bucket : buckets) {
+            for (long[] row : bucket) {
+                Arrays.fill(row, 0);
+            }
+        }
+        for (long[] row : window) {
+            Arrays.fill(row, 0);
+        }
+        Arrays.fill(bucketEpochs, EMPTY);
+        headEpoch = EMPTY;
+        candidates.clear();
+        candidateHeap.clear();
+    }
+
+    private void advance(long epoch) {
+        if (headEpoch == EMPTY) {
+            headEpoch = epoch;
+            return;
+        }
+        if (epoch <= headEpoch) {
+            return;
+        }
+
+        boolean expired = false;
+        long firstExpired = Math.max(headEpoch + 1, epoch - bucketCount + 1);
+        for (long next = firstExpired; next <= epoch; next++) {
+            int slot = slot(next);
+            if (bucketEpochs[slot] != EMPTY) {
+                expire(slot);
+                expired = true;
+            }
+        }
+        headEpoch = epoch;
+
+        if (expired) {
+            refreshCandidates();
+        }
+    }
+
+    private void expire(int slot) {
+        long[][] bucket = buckets[slot];
+        for (int row = 0; row < bucket.length; row++) {
+            for (int column = 0; column < width; column++) {
+                window[row][column] -= bucket[row][column];
+            }
+            Arrays.fill(bucket[row], 0);
+        }
+        bucketEpochs[slot] = EMPTY;
+    }
+
+    private void refreshCandidates() {
+        candidates.replaceAll((key, count) -> estimate(key));
+        candidates.values().removeIf(count -> count <= 0);
+        rebuildHeap();
+    }
+
+    private void offer(long key, long estimate) {
+        if (candidates.containsKey(key) || candidates.size() < capacity) {
+            candidates.put(key, estimate);
+            candidateHeap.add(new long[]{key, estimate});
+        } else {
+            long[] smallest = smallestCandidate();
+            if (estimate <= smallest[1]) {
+                return;
+            }
+            candidateHeap.poll();
+            candidates.remove(smallest[0]);
+            candidates.put(key, estimate);
+            candidateHeap.add(new long[]{key, estimate});
+        }
+
+        if (candidateHeap.size() > capacity * 4) {
+            rebuildHeap();
+        }
+    }
+
+    private void lower(long key, long estimate) {
+        if (!candidates.containsKey(key)) {
+            return;
+        }
+        if (estimate <= 0) {
+            candidates.remove(key);
+        } else {
+            candidates.put(key, estimate);
+            candidateHeap.add(new long[]{key, estimate});
+        }
+    }
+
+    private long[] smallestCandidate() {
+        long[] smallest = candidateHeap.peek();
+        while (smallest != null && !Objects.equals(candidates.get(smallest[0]), smallest[1])) {
+            candidateHeap.poll();
+            smallest = candidateHeap.peek();
+        }
+        return smallest;
+    }
+
+    private void rebuildHeap() {
+        candidateHeap.clear();
+        candidates.forEach((key, count) -> candidateHeap.add(new long[]{key, count}));
+    }
+
+    private long estimate(long key) {
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < rowSeeds.length; row++) {
+            estimate = Math.min(estimate, window[row][column(key, row)]);
+        }
+        return estimate;
+    }
+
+    private int column(long key, int row) {
+        // SplitMix64 finalizer, seeded per row.
+        long hash = key ^ rowSeeds[row];
+        hash = (hash ^ (hash >>> 30)) * 0xBF58476D1CE4E5B9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94D049BB133111EBL;
+        hash = hash ^ (hash >>> 31);
+        return (int) Long.remainderUnsigned(hash, width);
+    }
+
+    private int slot(long epoch) {
+        return (int) Math.floorMod(epoch, (long) bucketCount);
+    }
+}
@@ -0,0 +1,204 @@
+package cz.osu.opr3_final_project.utils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * Buffers on/off state changes per key and writes them in batches. A change that reverts a buffered
+ * one cancels it, so only keys whose final state differs from the stored state are written.
+ * <p>
+ * While a batch is being written its entries stay visible through {@link #bufferedState}, so readers
+ * always see their own changes. When a batch fails its changes are written one by one, so a single
+ * bad change cannot hold back the rest. A change that fails while others are written counts a failed
+ * attempt and is dropped after {@code maxAttempts}. If nothing can be written the store is taken to be
+ * unavailable: the remaining changes are kept for the next flush without counting an attempt, and the
+ * change that failed moves to the back so it is not the first one tried again.
+ */
+public class WriteBehindBuffer<K> {
+
+    private final Consumer<Map<K, Boolean>> writer;
+    private final int flushThreshold;
+    private final Executor flushExecutor;
+    private final int maxAttempts;
+    private final BiConsumer<K, RuntimeException> droppedListener;
+
+    private final Object lock = new Object();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+    // Guarded by lock.
+    private Map<K, Boolean> pending = new LinkedHashMap<>();
+    private Map<K, Boolean> inFlight = Map.of();
+    private final Map<K, Integer> failedAttempts = new HashMap<>();
+    private long completedFlushes;
+
+    /**
+     * {@code droppedListener} is called with every change given up after {@code maxAttempts} failed
+     * writes, together with the last failure.
+     */
+    public WriteBehindBuffer(
+            Consumer<Map<K, Boolean>> writer,
+            int flushThreshold,
+            Executor flushExecutor,
+            int maxAttempts,
+            BiConsumer<K, RuntimeException> droppedListener) {
+        this.writer = writer;
+        this.flushThreshold = flushThreshold;
+        this.flushExecutor = flushExecutor;
+        this.maxAttempts = maxAttempts;
+        this.droppedListener = droppedListener;
+    }
+
+    /**
+     * Records that {@code key} should end up in {@code state}. {@code storedState} reads the state
+     * currently in the database. Returns true if this changed the state visible to readers.
+     */
+    public boolean submit(K key, boolean state, BooleanSupplier storedState) {
+        while (true) {
+            long flushesBeforeRead;
+            synchronized (lock) {
+                flushesBeforeRead = completedFlushes;
+            }
+            boolean stored = storedState.getAsBoolean();
+
+            boolean changed;
+            boolean flushNeeded;
+            synchronized (lock) {
+                if (completedFlushes != flushesBeforeRead) {
+                    // A batch was written while reading; the stored state may already be outdated.
+                    continue;
+                }
+
+                Boolean inFlightState = inFlight.get(key);
+                boolean base = inFlightState != null ? inFlightState : stored;
+                Boolean pendingState = pending.get(key);
+                boolean current = pendingState != null ? pendingState : base;
+
+                if (state == base) {
+                    pending.remove(key);
+                } else {
+                    pending.put(key, state);
+                }
+                if (state != current) {
+                    failedAttempts.remove(key);
+                }
+                changed = state != current;
+                flushNeeded = pending.size() >= flushThreshold;
+            }
+
+            if (flushNeeded && flushScheduled.compareAndSet(false, true)) {
+                flushExecutor.execute(() -> {
+                    flushScheduled.set(false);
+                    flush();
+                });
+            }
+            return changed;
+        }
+    }
+
+    /**
+     * Returns the buffered state for {@code key}, or null when the stored state is current.
+     */
+    public Boolean bufferedState(K key) {
+        synchronized (lock) {
+            Boolean pendingState = pending.get(key);
+            return pendingState != null ? pendingState : inFlight.get(key);
+        }
+    }
+
+    public int size() {
+        synchronized (lock) {
+            return pending.size() + inFlight.size();
+        }
+    }
+
+    /**
+     * Writes all buffered changes as one batch, falling back to one write per change if the batch
+     * fails. Returns the number of changes written.
+     */
+    public int flush() {
+        flushLock.lock();
+        try {
+            Map<K, Boolean> batch;
+            synchronized (lock) {
+                if (pending.isEmpty()) {
+                    return 0;
+                }
+                batch = pending;
+                pending = new LinkedHashMap<>();
+                inFlight = batch;
+            }
+
+            Map<K, Boolean> notWritten = new LinkedHashMap<>();
+            Map<K, RuntimeException> failures = new HashMap<>();
+            boolean storeAvailable = true;
+            try {
+                writer.accept(batch);
+            } catch (RuntimeException e) {
+                storeAvailable = writeOneByOne(batch, notWritten, failures);
+            }
+
+            List<Map.Entry<K, RuntimeException>> dropped = new ArrayList<>();
+            synchronized (lock) {
+                inFlight = Map.of();
+                completedFlushes++;
+                batch.forEach((key, state) -> {
+                    if (!notWritten.containsKey(key)) {
+                        failedAttempts.remove(key);
+                    }
+                });
+                for (Map.Entry<K, RuntimeException> failure : failures.entrySet()) {
+                    K key = failure.getKey();
+                    if (!storeAvailable || pending.containsKey(key)) {
+                        // Not the change's fault, or changed again while being written and replaced.
+                        continue;
+                    }
+                    if (failedAttempts.merge(key, 1, Integer::sum) >= maxAttempts) {
+                        failedAttempts.remove(key);
+                        notWritten.remove(key);
+                        dropped.add(failure);
+                    }
+                }
+                notWritten.forEach(pending::putIfAbsent);
+            }
+
+            dropped.forEach(entry -> droppedListener.accept(entry.getKey(), entry.getValue()));
+            return batch.size() - notWritten.size() - dropped.size();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Returns false if nothing could be written, in which case the changes after the first failure
+     * are not tried.
+     */
+    private boolean writeOneByOne(Map<K, Boolean> batch, Map<K, Boolean> notWritten, Map<K, RuntimeException> failures) {
+        boolean anyWritten = false;
+        Map<K, Boolean> failed = new LinkedHashMap<>();
+        for (Map.Entry<K, Boolean> change : batch.entrySet()) {
+            if (!anyWritten && !failed.isEmpty()) {
+                notWritten.put(change.getKey(), change.getValue());
+                continue;
+            }
+            try {
+                writer.accept(Map.of(change.getKey(), change.getValue()));
+                anyWritten = true;
+            } catch (RuntimeException e) {
+                failed.put(change.getKey(), change.getValue());
+                failures.put(change.getKey(), e);
+            }
+        }
+        notWritten.putAll(failed);
+        return anyWritten;
+    }
+}
@@ -0,0 +1,56 @@
+-- Per-movie like and comment counters, kept in step with the base tables by triggers so that every write
+-- path (including cascading deletes of users and movies) updates them in the same transaction.
+CREATE TABLE movie_stats
+(
+    movie_id      BIGINT PRIMARY KEY REFERENCES movies (id) ON DELETE CASCADE,
+    like_count    BIGINT NOT NULL DEFAULT 0,
+    comment_count BIGINT NOT NULL DEFAULT 0
+);
+
+INSERT INTO movie_stats (movie_id, like_count, comment_count)
+SELECT m.id,
+       (SELECT count(*) FROM users_favourite_movies f WHERE f.movie_id = m.id),
+       (SELECT count(*) FROM comments c WHERE c.movie_id = m.id)
+FROM movies m;
+
+CREATE FUNCTION movie_stats_count_like() RETURNS TRIGGER AS
+$$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO movie_stats (movie_id, like_count)
+        VALUES (NEW.movie_id, 1)
+        ON CONFLICT (movie_id) DO UPDATE SET like_count = movie_stats.like_count + 1;
+    ELSE
+        UPDATE movie_stats SET like_count = like_count - 1 WHERE movie_id = OLD.movie_id;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE FUNCTION movie_stats_count_comment() RETURNS TRIGGER AS
+$$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        IF NEW.movie_id IS NOT NULL THEN
+            INSERT INTO movie_stats (movie_id, comment_count)
+            VALUES (NEW.movie_id, 1)
+            ON CONFLICT (movie_id) DO UPDATE SET comment_count = movie_stats.comment_count + 1;
+        END IF;
+    ELSIF OLD.movie_id IS NOT NULL THEN
+        UPDATE movie_stats SET comment_count = comment_count - 1 WHERE movie_id = OLD.movie_id;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER users_favourite_movies_count
+    AFTER INSERT OR DELETE
+    ON users_favourite_movies
+    FOR EACH ROW
+EXECUTE FUNCTION movie_stats_count_like();
+
+CREATE TRIGGER comments_count
+    AFTER INSERT OR DELETE
+    ON comments
+    FOR EACH ROW
+EXECUTE FUNCTION movie_stats_count_comment();
@@ -0,0 +1,7 @@
+-- When a movie was liked, needed to rebuild the trending window after a restart. Likes that existed
+-- before this migration have no time and are left out of trending.
+ALTER TABLE users_favourite_movies ADD COLUMN liked_at TIMESTAMP;
+ALTER TABLE users_favourite_movies ALTER COLUMN liked_at SET DEFAULT timezone('UTC', now());
+
+CREATE INDEX users_favourite_movies_liked_at_idx ON users_favourite_movies (liked_at);
+CREATE INDEX comments_timestamp_idx ON comments (timestamp);
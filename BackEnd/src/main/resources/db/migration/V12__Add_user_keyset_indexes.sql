@@ -0,0 +1,8 @@
+-- Likes stored before V11 have no time; give them the epoch so they sort last in a user's favourites
+-- and the (liked_at, movie_id) keyset never has to deal with NULLs. They stay out of trending.
+UPDATE users_favourite_movies SET liked_at = TIMESTAMP '1970-01-01 00:00:00' WHERE liked_at IS NULL;
+ALTER TABLE users_favourite_movies ALTER COLUMN liked_at SET NOT NULL;
+
+-- Serve the newest-first keyset pagination of a user's favourites and comments and their counts.
+CREATE INDEX users_favourite_movies_user_liked_at_idx ON users_favourite_movies (user_id, liked_at, movie_id);
+CREATE INDEX comments_user_timestamp_id_idx ON comments (user_id, timestamp, id);
@@ -0,0 +1,8 @@
+-- Comment times were written as wall-clock time of the JVM zone, which the driver also uses as the
+-- session zone. Hibernate now writes them in UTC (hibernate.jdbc.time_zone), like liked_at, so the
+-- existing rows are converted from the session zone and the column default follows suit.
+UPDATE comments
+SET timestamp = (timestamp AT TIME ZONE current_setting('TimeZone')) AT TIME ZONE 'UTC'
+WHERE current_setting('TimeZone') NOT IN ('UTC', 'Etc/UTC', 'GMT');
+
+ALTER TABLE comments ALTER COLUMN timestamp SET DEFAULT timezone('UTC', now());
@@ -0,0 +1,8 @@
+ALTER TABLE movies
+    ADD COLUMN search_vector tsvector
+        GENERATED ALWAYS AS (
+            setweight(to_tsvector('simple', coalesce(title, '')), 'A') ||
+            setweight(to_tsvector('simple', coalesce(description, '')), 'B')
+        ) STORED;
+
+CREATE INDEX idx_movies_search_vector ON movies USING GIN (search_vector);
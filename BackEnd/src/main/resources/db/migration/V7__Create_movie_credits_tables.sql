@@ -0,0 +1,17 @@
+CREATE TABLE movie_directors
+(
+    movie_id  BIGINT       NOT NULL REFERENCES movies (id) ON DELETE CASCADE,
+    person_id BIGINT       NOT NULL,
+    name      VARCHAR(255) NOT NULL,
+    PRIMARY KEY (movie_id, person_id)
+);
+
+CREATE TABLE movie_cast
+(
+    movie_id       BIGINT       NOT NULL REFERENCES movies (id) ON DELETE CASCADE,
+    billing_order  INT          NOT NULL,
+    person_id      BIGINT       NOT NULL,
+    name           VARCHAR(255) NOT NULL,
+    character_name VARCHAR(500),
+    PRIMARY KEY (movie_id, billing_order)
+);
@@ -0,0 +1,6 @@
+-- Hibernate allocates ids in blocks of 50 (pooled-lo optimizer): each nextval returns the first id of a
+-- block the application then fills from memory. Rows inserted with the column default still call nextval,
+-- so they simply use up one block and can never collide with ids handed out by Hibernate.
+ALTER SEQUENCE comments_id_seq INCREMENT BY 50;
+ALTER SEQUENCE users_id_seq INCREMENT BY 50;
+ALTER SEQUENCE genre_id_seq INCREMENT BY 50;
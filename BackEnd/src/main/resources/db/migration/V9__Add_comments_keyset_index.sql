@@ -0,0 +1,2 @@
+-- Serves the newest-first keyset pagination of a movie's comments (read backwards) and the per-movie count.
+CREATE INDEX comments_movie_timestamp_id_idx ON comments (movie_id, timestamp, id);
@@ -0,0 +1,83 @@
+package cz.osu.opr3_final_project;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Counts every statement prepared or created on the application's connections, whether through
+ * Hibernate or JdbcTemplate. Import it into a {@code @SpringBootTest} and autowire it.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class JdbcStatementCounter implements BeanPostProcessor {
+
+    private static final Set<String> STATEMENT_METHODS = Set.of("prepareStatement", "prepareCall", "createStatement");
+
+    // SQL of each statement, empty for plain statements whose SQL is only known when executed.
+    private final Queue<String> statements = new ConcurrentLinkedQueue<>();
+
+    public long count() {
+        return statements.size();
+    }
+
+    /**
+     * Counts the prepared statements whose SQL contains {@code sqlFragment}, ignoring case.
+     */
+    public long count(String sqlFragment) {
+        String fragment = sqlFragment.toLowerCase(Locale.ROOT);
+        return statements.stream().filter(sql -> sql.toLowerCase(Locale.ROOT).contains(fragment)).count();
+    }
+
+    public void clear() {
+        statements.clear();
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource) {
+            return new CountingDataSource(dataSource);
+        }
+        return bean;
+    }
+
+    private class CountingDataSource extends DelegatingDataSource {
+
+        private CountingDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return counting(super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return counting(super.getConnection(username, password));
+        }
+
+        private Connection counting(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(), new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                        if (STATEMENT_METHODS.contains(method.getName())) {
+                            statements.add(args != null && args[0] instanceof String sql ? sql : "");
+                        }
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    });
+        }
+    }
+}
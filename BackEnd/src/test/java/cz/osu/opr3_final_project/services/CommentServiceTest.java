@@ -0,0 +1,75 @@
+package cz.osu.opr3_final_project.services;
+
+import cz.osu.opr3_final_project.JdbcStatementCounter;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Hibernate statistics are off outside tests; they cost a little on every session.
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(JdbcStatementCounter.class)
+class CommentServiceTest {
+
+    private static final long MOVIE_ID = 999_000_015L;
+    private static final String USERNAME = "comment-service-user";
+    // Three blocks of the pooled comment id sequence (allocationSize 50), whatever is left of a block
+    // drawn by earlier tests: 150 ids starting anywhere in a block always span exactly three fetches.
+    private static final int COMMENTS = 150;
+    private static final int ID_BLOCK_FETCHES = 3;
+
+    @Autowired
+    private CommentService commentService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private JdbcStatementCounter statementCounter;
+
+    private Long userId;
+
+    @BeforeEach
+    void createFixtures() {
+        cleanUp();
+        jdbcTemplate.update("INSERT INTO movies (id, title) VALUES (?, ?)", MOVIE_ID, "Comment Service");
+        userId = jdbcTemplate.queryForObject(
+                "INSERT INTO users (username, password) VALUES (?, 'password') RETURNING id", Long.class, USERNAME);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM movies WHERE id = ?", MOVIE_ID);
+        jdbcTemplate.update("DELETE FROM users WHERE username = ?", USERNAME);
+    }
+
+    @Test
+    void eachCommentIsOneTransactionWithOneInsertAndIdsComeInBlocksOfFifty() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        statementCounter.clear();
+        for (int i = 0; i < COMMENTS; i++) {
+            commentService.addComment(userId, MOVIE_ID, "comment " + i);
+        }
+
+        assertEquals(COMMENTS, statistics.getSuccessfulTransactionCount());
+        assertEquals(COMMENTS, statistics.getEntityInsertCount());
+        // Movie and user are only referenced, never loaded or updated.
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(0, statistics.getEntityUpdateCount());
+        assertEquals(COMMENTS, statementCounter.count("insert into comments"));
+        assertEquals(ID_BLOCK_FETCHES, statementCounter.count("nextval"));
+        assertEquals(COMMENTS + ID_BLOCK_FETCHES, statementCounter.count());
+        assertEquals((long) COMMENTS, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM comments WHERE movie_id = ?", Long.class, MOVIE_ID));
+    }
+}
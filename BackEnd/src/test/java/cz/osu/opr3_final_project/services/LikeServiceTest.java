@@ -0,0 +1,116 @@
+package cz.osu.opr3_final_project.services;
+
+import cz.osu.opr3_final_project.JdbcStatementCounter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The user has {@value #FAVOURITES} favourites, so a toggle that loaded or rewrote them would show
+ * up in the statement counts.
+ */
+@SpringBootTest
+@Import(JdbcStatementCounter.class)
+class LikeServiceTest {
+
+    private static final long FIRST_MOVIE_ID = 998_000_000L;
+    private static final int FAVOURITES = 5_000;
+    private static final long TOGGLED_MOVIE_ID = FIRST_MOVIE_ID + FAVOURITES;
+    private static final String USERNAME = "like-service-user";
+    private static final String NEW_USERNAME = "like-service-new-user";
+
+    @Autowired
+    private LikeService likeService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private JdbcStatementCounter statementCounter;
+
+    private Long userId;
+    private Long newUserId;
+
+    @BeforeEach
+    void createFixtures() {
+        cleanUp();
+        userId = jdbcTemplate.queryForObject(
+                "INSERT INTO users (username, password) VALUES (?, 'password') RETURNING id", Long.class, USERNAME);
+        newUserId = jdbcTemplate.queryForObject(
+                "INSERT INTO users (username, password) VALUES (?, 'password') RETURNING id", Long.class, NEW_USERNAME);
+
+        List<Object[]> movies = new ArrayList<>();
+        List<Object[]> favourites = new ArrayList<>();
+        for (long movieId = FIRST_MOVIE_ID; movieId <= TOGGLED_MOVIE_ID; movieId++) {
+            movies.add(new Object[]{movieId, "Like Service " + movieId});
+            if (movieId < TOGGLED_MOVIE_ID) {
+                favourites.add(new Object[]{userId, movieId});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO movies (id, title) VALUES (?, ?)", movies);
+        jdbcTemplate.batchUpdate("INSERT INTO users_favourite_movies (user_id, movie_id) VALUES (?, ?)", favourites);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM users WHERE username IN (?, ?)", USERNAME, NEW_USERNAME);
+        jdbcTemplate.update("DELETE FROM movies WHERE id BETWEEN ? AND ?", FIRST_MOVIE_ID, TOGGLED_MOVIE_ID);
+    }
+
+    @Test
+    void secondLikeChangesNothing() {
+        assertTrue(likeService.like(userId, TOGGLED_MOVIE_ID));
+        assertFalse(likeService.like(userId, TOGGLED_MOVIE_ID));
+
+        assertTrue(likeService.isLiked(userId, TOGGLED_MOVIE_ID));
+        assertEquals(FAVOURITES + 1, favouriteCount());
+    }
+
+    @Test
+    void unlikeOfMissingLikeChangesNothing() {
+        assertFalse(likeService.unlike(userId, TOGGLED_MOVIE_ID));
+
+        assertFalse(likeService.isLiked(userId, TOGGLED_MOVIE_ID));
+        assertEquals(FAVOURITES, favouriteCount());
+    }
+
+    @Test
+    void repeatedTogglesKeepRowCount() {
+        for (int i = 0; i < 10; i++) {
+            assertTrue(likeService.like(userId, TOGGLED_MOVIE_ID));
+            assertFalse(likeService.like(userId, TOGGLED_MOVIE_ID));
+            assertTrue(likeService.unlike(userId, TOGGLED_MOVIE_ID));
+            assertFalse(likeService.unlike(userId, TOGGLED_MOVIE_ID));
+        }
+
+        assertFalse(likeService.isLiked(userId, TOGGLED_MOVIE_ID));
+        assertEquals(FAVOURITES, favouriteCount());
+    }
+
+    @Test
+    void toggleCostsOneStatementWhateverTheFavouriteCount() {
+        assertEquals(1, statementsFor(() -> likeService.like(userId, TOGGLED_MOVIE_ID)));
+        assertEquals(1, statementsFor(() -> likeService.unlike(userId, TOGGLED_MOVIE_ID)));
+
+        assertEquals(1, statementsFor(() -> likeService.like(newUserId, TOGGLED_MOVIE_ID)));
+        assertEquals(1, statementsFor(() -> likeService.unlike(newUserId, TOGGLED_MOVIE_ID)));
+    }
+
+    private long statementsFor(Runnable action) {
+        statementCounter.clear();
+        action.run();
+        return statementCounter.count();
+    }
+
+    private long favouriteCount() {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM users_favourite_movies WHERE user_id = ?", Long.class, userId);
+    }
+}
@@ -0,0 +1,69 @@
+package cz.osu.opr3_final_project.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class LikeServiceWriteBehindTest {
+
+    private static final long USER_ID = 7L;
+    private static final long MOVIE_ID = 603L;
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final ResourceVersionService resourceVersions = new ResourceVersionService(
+            new ObjectMapper(), new SimpleMeterRegistry(), 100, DataSize.ofKilobytes(64));
+    private final LikeService likeService = new LikeService(
+            jdbcTemplate, mock(PlatformTransactionManager.class), resourceVersions, new SimpleMeterRegistry(),
+            false, 100, Duration.ofMinutes(1), true, 100, 3);
+
+    @AfterEach
+    void shutDown() throws InterruptedException {
+        likeService.flushOnShutdown();
+    }
+
+    @Test
+    void profileVersionChangesOnlyOnceBufferedLikeIsStored() {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class), eq(USER_ID), eq(MOVIE_ID))).thenReturn(false);
+        String eTag = resourceVersions.profileETag(USER_ID);
+
+        assertTrue(likeService.like(USER_ID, MOVIE_ID));
+        assertTrue(likeService.isLiked(USER_ID, MOVIE_ID));
+        // Not stored yet: a profile built now would lack the like, so it must not get a new version.
+        assertEquals(eTag, resourceVersions.profileETag(USER_ID));
+
+        List<String> versionsAtWrite = new ArrayList<>();
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(invocation -> {
+            versionsAtWrite.add(resourceVersions.profileETag(USER_ID));
+            return new int[]{1};
+        });
+        likeService.flushPendingLikes();
+
+        assertEquals(List.of(eTag), versionsAtWrite);
+        assertNotEquals(eTag, resourceVersions.profileETag(USER_ID));
+    }
+
+    @Test
+    void cancelledLikeLeavesProfileVersion() {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class), eq(USER_ID), eq(MOVIE_ID))).thenReturn(false);
+        String eTag = resourceVersions.profileETag(USER_ID);
+
+        assertTrue(likeService.like(USER_ID, MOVIE_ID));
+        assertTrue(likeService.unlike(USER_ID, MOVIE_ID));
+        likeService.flushPendingLikes();
+
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+        assertEquals(eTag, resourceVersions.profileETag(USER_ID));
+    }
+}
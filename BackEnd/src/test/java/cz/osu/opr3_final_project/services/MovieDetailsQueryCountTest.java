@@ -0,0 +1,130 @@
+package cz.osu.opr3_final_project.services;
+
+import cz.osu.opr3_final_project.JdbcStatementCounter;
+import cz.osu.opr3_final_project.dtos.tmdb.TmdbMovieDetailsActorDTO;
+import cz.osu.opr3_final_project.dtos.tmdb.TmdbMovieDetailsDTO;
+import cz.osu.opr3_final_project.dtos.tmdb.TmdbMovieDetailsDirectorDTO;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(JdbcStatementCounter.class)
+class MovieDetailsQueryCountTest {
+
+    private static final long FEW_COMMENTS_MOVIE_ID = 999_000_017L;
+    private static final long MANY_COMMENTS_MOVIE_ID = 999_000_018L;
+    private static final long CREDITED_MOVIE_ID = 999_000_019L;
+    private static final String USERNAME_PREFIX = "query-count-user-";
+
+    @Autowired
+    private MovieService movieService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private JdbcStatementCounter statementCounter;
+
+    @BeforeEach
+    void createFixtures() {
+        cleanUp();
+        createMovie(FEW_COMMENTS_MOVIE_ID, 1);
+        createMovie(MANY_COMMENTS_MOVIE_ID, 50);
+        addCredits(FEW_COMMENTS_MOVIE_ID, 1, 1);
+        addCredits(MANY_COMMENTS_MOVIE_ID, 2, 10);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM movies WHERE id IN (?, ?, ?)",
+                FEW_COMMENTS_MOVIE_ID, MANY_COMMENTS_MOVIE_ID, CREDITED_MOVIE_ID);
+        jdbcTemplate.update("DELETE FROM users WHERE username LIKE ?", USERNAME_PREFIX + "%");
+    }
+
+    @Test
+    void queryCountDoesNotDependOnCommentCount() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        statementCounter.clear();
+        TmdbMovieDetailsDTO fewComments = movieService.getMovieDetails(FEW_COMMENTS_MOVIE_ID);
+        long fewCommentsQueries = statistics.getPrepareStatementCount();
+        long fewCommentsStatements = statementCounter.count();
+
+        statistics.clear();
+        statementCounter.clear();
+        TmdbMovieDetailsDTO manyComments = movieService.getMovieDetails(MANY_COMMENTS_MOVIE_ID);
+        long manyCommentsQueries = statistics.getPrepareStatementCount();
+        long manyCommentsStatements = statementCounter.count();
+
+        assertEquals(1, fewComments.comments().size());
+        assertEquals(20, manyComments.comments().size());
+        assertEquals(50, manyComments.commentCount());
+        assertEquals(List.of("Drama"), manyComments.genre());
+        assertEquals(2, manyComments.directors().size());
+        assertEquals(10, manyComments.actors().size());
+
+        assertEquals(fewCommentsQueries, manyCommentsQueries);
+        // Through Hibernate: the movie with genres and credits, and the first page of comments.
+        assertEquals(2, manyCommentsQueries);
+        assertEquals(fewCommentsStatements, manyCommentsStatements);
+        // Plus the comment count from movie_stats through JdbcTemplate.
+        assertEquals(3, manyCommentsStatements);
+        assertEquals(1, statementCounter.count("movie_stats"));
+    }
+
+    @Test
+    void detailsListEachGenreAndCreditOnce() {
+        createMovie(CREDITED_MOVIE_ID, 0);
+        addGenre(CREDITED_MOVIE_ID, "Crime");
+        addCredits(CREDITED_MOVIE_ID, 2, 3);
+
+        TmdbMovieDetailsDTO details = movieService.getMovieDetails(CREDITED_MOVIE_ID);
+
+        assertEquals(List.of("Crime", "Drama"), details.genre());
+        assertEquals(List.of(1L, 2L), details.directors().stream().map(TmdbMovieDetailsDirectorDTO::id).sorted().toList());
+        assertEquals(List.of(101L, 102L, 103L), details.actors().stream().map(TmdbMovieDetailsActorDTO::id).toList());
+    }
+
+    private void addGenre(long movieId, String genre) {
+        jdbcTemplate.update("INSERT INTO genre (name) VALUES (?) ON CONFLICT (name) DO NOTHING", genre);
+        jdbcTemplate.update("INSERT INTO movies_genre (movie_id, genre_id) SELECT ?, id FROM genre WHERE name = ?",
+                movieId, genre);
+    }
+
+    private void addCredits(long movieId, int directorCount, int castCount) {
+        for (int i = 1; i <= directorCount; i++) {
+            jdbcTemplate.update("INSERT INTO movie_directors (movie_id, person_id, name) VALUES (?, ?, ?)",
+                    movieId, (long) i, "Director " + i);
+        }
+        for (int i = 0; i < castCount; i++) {
+            jdbcTemplate.update("INSERT INTO movie_cast (movie_id, billing_order, person_id, name, character_name) VALUES (?, ?, ?, ?, ?)",
+                    movieId, i, 101L + i, "Actor " + i, "Character " + i);
+        }
+    }
+
+    private void createMovie(long movieId, int commentCount) {
+        jdbcTemplate.update("INSERT INTO movies (id, title) VALUES (?, ?)", movieId, "Query Count " + movieId);
+        addGenre(movieId, "Drama");
+
+        for (int i = 0; i < commentCount; i++) {
+            Long userId = jdbcTemplate.queryForObject(
+                    "INSERT INTO users (username, password) VALUES (?, 'password') RETURNING id",
+                    Long.class, USERNAME_PREFIX + movieId + "-" + i);
+            jdbcTemplate.update("INSERT INTO comments (movie_id, user_id, content) VALUES (?, ?, ?)",
+                    movieId, userId, "Comment " + i);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package cz.osu.opr3_final_project.services;
+
+import cz.osu.opr3_final_project.dtos.tmdb.TmdbMovieSearchDTO;
+import cz.osu.opr3_final_project.dtos.tmdb.TmdbSearchResultsDTO;
+import cz.osu.opr3_final_project.model.entities.Movie;
+import cz.osu.opr3_final_project.repositories.MovieRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class MovieSearchServiceTest {
+
+    private static final String QUERY = "matrix";
+    private static final int PAGE_SIZE = 10;
+    private static final int TMDB_RESULTS = 30;
+
+    private final MovieRepository movieRepository = mock(MovieRepository.class);
+    private final TmdbService tmdbService = mock(TmdbService.class);
+    private final MovieSearchService searchService = new MovieSearchService(movieRepository, tmdbService);
+
+    // TMDB's ranking is movies 1..30; the given ids are local hits and rank first locally.
+    private void givenResults(List<Long> localIds) {
+        List<TmdbMovieSearchDTO> tmdbMovies = new ArrayList<>();
+        for (long id = 1; id <= TMDB_RESULTS; id++) {
+            tmdbMovies.add(new TmdbMovieSearchDTO(id, "Matrix " + id, "1999", null));
+        }
+
+        when(movieRepository.searchByText(anyString(), any(Pageable.class))).thenAnswer(invocation -> {
+            Pageable pageable = invocation.getArgument(1);
+            List<Movie> movies = new ArrayList<>();
+            for (int i = (int) pageable.getOffset(); i < Math.min(pageable.getOffset() + pageable.getPageSize(), localIds.size()); i++) {
+                Movie movie = new Movie();
+                movie.setId(localIds.get(i));
+                movie.setTitle("Matrix " + localIds.get(i));
+                movies.add(movie);
+            }
+            return new PageImpl<>(movies, pageable, localIds.size());
+        });
+        when(movieRepository.findTextMatchIds(anyString(), anyCollection())).thenAnswer(invocation -> {
+            List<Long> matches = new ArrayList<>(invocation.<Collection<Long>>getArgument(1));
+            matches.retainAll(localIds);
+            return matches;
+        });
+        when(tmdbService.searchMovieRange(eq(QUERY), anyInt(), anyInt())).thenAnswer(invocation -> {
+            int from = Math.min((int) invocation.getArgument(1), TMDB_RESULTS);
+            int to = Math.min(from + (int) invocation.getArgument(2), TMDB_RESULTS);
+            return new TmdbSearchResultsDTO<>(tmdbMovies.subList(from, to), TMDB_RESULTS);
+        });
+        when(tmdbService.searchMoviesAsync(QUERY)).thenReturn(CompletableFuture.completedFuture(
+                new TmdbSearchResultsDTO<>(tmdbMovies.subList(0, 20), TMDB_RESULTS)));
+    }
+
+    private List<Long> walkPages(int pages) {
+        List<Long> ids = new ArrayList<>();
+        for (int page = 1; page <= pages; page++) {
+            TmdbSearchResultsDTO<TmdbMovieSearchDTO> results = searchService.searchMovies(QUERY, page, PAGE_SIZE);
+            assertTrue(results.results().size() <= PAGE_SIZE);
+            results.results().forEach(movie -> ids.add(movie.id()));
+        }
+        return ids;
+    }
+
+    private static void assertEveryResultOnce(List<Long> ids, List<Long> localIds) {
+        assertEquals(ids.size(), new HashSet<>(ids).size(), "duplicate results: " + ids);
+        Set<Long> shown = new HashSet<>(ids);
+        for (long id = 1; id <= TMDB_RESULTS; id++) {
+            assertTrue(shown.contains(id), "TMDB result " + id + " never shown: " + ids);
+        }
+        assertTrue(shown.containsAll(localIds), "local hits missing: " + ids);
+    }
+
+    @Test
+    void pagesCoverTmdbResultsWhenLocalHitsPartlyFillFirstPage() {
+        givenResults(List.of(3L, 1L, 7L, 25L));
+
+        List<Long> ids = walkPages(4);
+
+        assertEquals(List.of(3L, 1L, 7L, 25L), ids.subList(0, 4));
+        assertEveryResultOnce(ids, List.of(3L, 1L, 7L, 25L));
+    }
+
+    @Test
+    void pagesCoverTmdbResultsWhenLocalHitsFillFirstPage() {
+        givenResults(List.of(12L, 2L, 4L, 6L, 8L, 10L, 1L, 14L, 16L, 18L, 20L));
+
+        List<Long> ids = walkPages(5);
+
+        assertEquals(List.of(12L, 2L, 4L, 6L, 8L, 10L, 1L, 14L, 16L, 18L), ids.subList(0, PAGE_SIZE));
+        assertEveryResultOnce(ids, List.of(12L, 2L, 4L, 6L, 8L, 10L, 1L, 14L, 16L, 18L, 20L));
+    }
+
+    @Test
+    void localHitsPastFirstPageShowBeforeTmdbResults() {
+        List<Long> localIds = List.of(101L, 102L, 5L, 103L, 104L, 105L, 106L, 107L, 108L, 109L, 110L, 9L, 111L);
+        givenResults(localIds);
+
+        List<Long> ids = walkPages(5);
+
+        assertEquals(localIds, ids.subList(0, localIds.size()));
+        assertEveryResultOnce(ids, localIds);
+    }
+
+    @Test
+    void totalCountsLocalHeadAndTmdbResults() {
+        givenResults(List.of(3L, 1L));
+
+        assertEquals(2 + TMDB_RESULTS, searchService.searchMovies(QUERY, 1, PAGE_SIZE).totalResults());
+    }
+
+    @Test
+    void rejectsPageWhoseOffsetOverflows() {
+        givenResults(List.of(3L, 1L));
+
+        assertThrows(ArithmeticException.class, () -> searchService.searchMovies(QUERY, Integer.MAX_VALUE, PAGE_SIZE));
+        verifyNoInteractions(tmdbService);
+    }
+}
@@ -0,0 +1,81 @@
+package cz.osu.opr3_final_project.services;
+
+import cz.osu.opr3_final_project.dtos.tmdb.TmdbMovieDetailsActorDTO;
+import cz.osu.opr3_final_project.dtos.tmdb.TmdbMovieDetailsDTO;
+import cz.osu.opr3_final_project.dtos.tmdb.TmdbMovieDetailsDirectorDTO;
+import cz.osu.opr3_final_project.model.entities.Movie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class MovieServiceConcurrencyTest {
+
+    private static final long MOVIE_ID = 999_000_014L;
+    private static final int THREADS = 32;
+
+    @Autowired
+    private MovieService movieService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    @AfterEach
+    void removeMovie() {
+        jdbcTemplate.update("DELETE FROM movies WHERE id = ?", MOVIE_ID);
+    }
+
+    @Test
+    void concurrentFirstTouchStoresMovieOnceWithoutErrors() throws Exception {
+        TmdbMovieDetailsDTO details = new TmdbMovieDetailsDTO(
+                MOVIE_ID,
+                "Concurrency Test Movie",
+                "2024-01-01",
+                "Stored by many threads at once",
+                List.of("Drama", "Thriller", "Drama"),
+                List.of(),
+                "/poster.jpg",
+                List.of(new TmdbMovieDetailsDirectorDTO(1L, "Director")),
+                List.of(new TmdbMovieDetailsActorDTO(2L, "Actor", "Lead"), new TmdbMovieDetailsActorDTO(3L, "Actress", "Support")),
+                null,
+                null
+        );
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CyclicBarrier start = new CyclicBarrier(THREADS);
+        try {
+            List<Future<Movie>> results = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return movieService.createMovieIfNotExists(details);
+                }));
+            }
+
+            for (Future<Movie> result : results) {
+                assertEquals(MOVIE_ID, result.get(30, TimeUnit.SECONDS).getId());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, count("SELECT COUNT(*) FROM movies WHERE id = ?"));
+        assertEquals(2, count("SELECT COUNT(*) FROM movies_genre WHERE movie_id = ?"));
+        assertEquals(1, count("SELECT COUNT(*) FROM movie_directors WHERE movie_id = ?"));
+        assertEquals(2, count("SELECT COUNT(*) FROM movie_cast WHERE movie_id = ?"));
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class, MOVIE_ID);
+    }
+}
@@ -0,0 +1,62 @@
+package cz.osu.opr3_final_project.services;
+
+import cz.osu.opr3_final_project.dtos.MovieStatsDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class MovieStatsServiceTest {
+
+    private static final long MOVIE_ID = 999_000_019L;
+    private static final String USERNAME = "movie-stats-user";
+
+    @Autowired
+    private MovieStatsService movieStatsService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long userId;
+
+    @BeforeEach
+    void createFixtures() {
+        cleanUp();
+        jdbcTemplate.update("INSERT INTO movies (id, title) VALUES (?, ?)", MOVIE_ID, "Movie Stats");
+        userId = jdbcTemplate.queryForObject(
+                "INSERT INTO users (username, password) VALUES (?, 'password') RETURNING id", Long.class, USERNAME);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM movies WHERE id = ?", MOVIE_ID);
+        jdbcTemplate.update("DELETE FROM users WHERE username = ?", USERNAME);
+    }
+
+    @Test
+    void countersFollowLikesAndComments() {
+        assertEquals(new MovieStatsDTO(MOVIE_ID, 0, 0), movieStatsService.getStats(MOVIE_ID));
+
+        jdbcTemplate.update("INSERT INTO users_favourite_movies (user_id, movie_id) VALUES (?, ?)", userId, MOVIE_ID);
+        jdbcTemplate.update("INSERT INTO comments (movie_id, user_id, content) VALUES (?, ?, 'first')", MOVIE_ID, userId);
+        jdbcTemplate.update("INSERT INTO comments (movie_id, user_id, content) VALUES (?, ?, 'second')", MOVIE_ID, userId);
+        assertEquals(new MovieStatsDTO(MOVIE_ID, 1, 2), movieStatsService.getStats(MOVIE_ID));
+
+        jdbcTemplate.update("DELETE FROM users WHERE id = ?", userId);
+        assertEquals(new MovieStatsDTO(MOVIE_ID, 0, 0), movieStatsService.getStats(MOVIE_ID));
+    }
+
+    @Test
+    void rebuildRepairsDriftedCounters() {
+        jdbcTemplate.update("INSERT INTO users_favourite_movies (user_id, movie_id) VALUES (?, ?)", userId, MOVIE_ID);
+        jdbcTemplate.update("UPDATE movie_stats SET like_count = 42, comment_count = 7 WHERE movie_id = ?", MOVIE_ID);
+
+        movieStatsService.rebuild();
+
+        assertEquals(new MovieStatsDTO(MOVIE_ID, 1, 0), movieStatsService.getStats(MOVIE_ID));
+    }
+}
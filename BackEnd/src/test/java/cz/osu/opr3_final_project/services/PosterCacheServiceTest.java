@@ -0,0 +1,136 @@
+package cz.osu.opr3_final_project.services;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PosterCacheServiceTest {
+
+    @TempDir
+    Path cacheDirectory;
+
+    // Local stand-in for the TMDB image CDN.
+    private HttpServer cdn;
+    private final Map<String, AtomicInteger> requests = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void startCdn() throws IOException {
+        cdn = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        cdn.createContext("/t/p/", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            requests.computeIfAbsent(path, p -> new AtomicInteger()).incrementAndGet();
+            if (path.contains("missing")) {
+                exchange.sendResponseHeaders(404, -1);
+                exchange.close();
+                return;
+            }
+            byte[] body = new byte[400];
+            exchange.getResponseHeaders().set("Content-Type", "image/jpeg");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(body);
+            }
+        });
+        cdn.start();
+    }
+
+    @AfterEach
+    void stopCdn() {
+        cdn.stop(0);
+    }
+
+    private PosterCacheService newService(long maxBytes) throws IOException {
+        return newService(maxBytes, Duration.ZERO);
+    }
+
+    private PosterCacheService newService(long maxBytes, Duration evictionGrace) throws IOException {
+        String baseUrl = "http://127.0.0.1:" + cdn.getAddress().getPort() + "/t/p";
+        return new PosterCacheService(new RestTemplate(), cacheDirectory, DataSize.ofBytes(maxBytes), baseUrl, evictionGrace);
+    }
+
+    @Test
+    void downloadsEachVariantOnce() throws IOException {
+        PosterCacheService service = newService(10_000);
+
+        PosterCacheService.CachedPoster first = service.getPoster("w500", "abc.jpg");
+        PosterCacheService.CachedPoster second = service.getPoster("w500", "abc.jpg");
+        service.getPoster("w92", "abc.jpg");
+
+        assertEquals(400, first.length());
+        assertEquals(first.etag(), second.etag());
+        assertEquals("image/jpeg", first.contentType().toString());
+        assertTrue(Files.exists(cacheDirectory.resolve("w500/abc.jpg")));
+        assertEquals(1, requests.get("/t/p/w500/abc.jpg").get());
+        assertEquals(1, requests.get("/t/p/w92/abc.jpg").get());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedWhenOverLimit() throws IOException {
+        PosterCacheService service = newService(1_000);
+
+        service.getPoster("w92", "a.jpg");
+        service.getPoster("w92", "b.jpg");
+        service.getPoster("w92", "a.jpg");
+        service.getPoster("w92", "c.jpg");
+        service.deleteEvictedFiles();
+
+        assertTrue(Files.exists(cacheDirectory.resolve("w92/a.jpg")));
+        assertFalse(Files.exists(cacheDirectory.resolve("w92/b.jpg")));
+        assertTrue(Files.exists(cacheDirectory.resolve("w92/c.jpg")));
+    }
+
+    @Test
+    void evictedFileOutlivesGracePeriodOfRequestsHoldingIt() throws IOException {
+        PosterCacheService service = newService(500, Duration.ofHours(1));
+
+        PosterCacheService.CachedPoster served = service.getPoster("w92", "a.jpg");
+        service.getPoster("w92", "b.jpg");
+        service.deleteEvictedFiles();
+
+        assertTrue(Files.exists(served.file()));
+        assertEquals(400, Files.size(served.file()));
+    }
+
+    @Test
+    void fileDownloadedAgainIsNotDeletedWithItsEvictedCopy() throws IOException {
+        PosterCacheService service = newService(500);
+
+        service.getPoster("w92", "a.jpg");
+        service.getPoster("w92", "b.jpg");
+        service.getPoster("w92", "a.jpg");
+        service.deleteEvictedFiles();
+
+        assertTrue(Files.exists(cacheDirectory.resolve("w92/a.jpg")));
+        assertFalse(Files.exists(cacheDirectory.resolve("w92/b.jpg")));
+        assertEquals(2, requests.get("/t/p/w92/a.jpg").get());
+    }
+
+    @Test
+    void reusesFilesLeftByPreviousRun() throws IOException {
+        newService(10_000).getPoster("w185", "abc.jpg");
+        newService(10_000).getPoster("w185", "abc.jpg");
+
+        assertEquals(1, requests.get("/t/p/w185/abc.jpg").get());
+    }
+
+    @Test
+    void returnsNullWhenCdnHasNoImage() throws IOException {
+        assertNull(newService(10_000).getPoster("w92", "missing.jpg"));
+    }
+}
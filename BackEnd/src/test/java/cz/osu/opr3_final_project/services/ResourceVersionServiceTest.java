@@ -0,0 +1,64 @@
+package cz.osu.opr3_final_project.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import cz.osu.opr3_final_project.dtos.MovieSummaryDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResourceVersionServiceTest {
+
+    private final ResourceVersionService resourceVersions = new ResourceVersionService(
+            new ObjectMapper(), new SimpleMeterRegistry(), 100, DataSize.ofKilobytes(64));
+
+    @Test
+    void eTagIsStableUntilTheResourceChanges() {
+        String eTag = resourceVersions.movieETag(603L);
+
+        assertTrue(eTag.startsWith("W/\""));
+        assertEquals(eTag, resourceVersions.movieETag(603L));
+        assertNotEquals(eTag, resourceVersions.profileETag(603L));
+
+        resourceVersions.profileChanged(603L);
+        assertEquals(eTag, resourceVersions.movieETag(603L));
+
+        resourceVersions.movieChanged(603L);
+        assertNotEquals(eTag, resourceVersions.movieETag(603L));
+    }
+
+    @Test
+    void invalidatedVersionsAreNeverReissued() {
+        String eTag = resourceVersions.profileETag(1L);
+
+        resourceVersions.allChanged();
+
+        assertNotEquals(eTag, resourceVersions.profileETag(1L));
+    }
+
+    @Test
+    void ifNoneMatchUsesWeakComparison() {
+        String eTag = resourceVersions.movieETag(1L);
+        String strongForm = eTag.substring(2);
+
+        assertTrue(resourceVersions.matches(eTag, eTag));
+        assertTrue(resourceVersions.matches("\"other\", " + strongForm, eTag));
+        assertTrue(resourceVersions.matches("*", eTag));
+        assertFalse(resourceVersions.matches("W/\"other\"", eTag));
+        assertFalse(resourceVersions.matches(null, eTag));
+    }
+
+    @Test
+    void bodiesAreCachedPerETag() {
+        String eTag = resourceVersions.movieETag(2L);
+        assertNull(resourceVersions.getCachedBody(eTag));
+
+        byte[] body = resourceVersions.cacheBody(eTag, new MovieSummaryDTO(2L, "Title", null, 1999));
+
+        assertArrayEquals(body, resourceVersions.getCachedBody(eTag));
+        assertTrue(new String(body, StandardCharsets.UTF_8).contains("\"title\":\"Title\""));
+    }
+}
@@ -0,0 +1,206 @@
+package cz.osu.opr3_final_project.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import cz.osu.opr3_final_project.dtos.tmdb.TmdbMovieDetailsActorDTO;
+import cz.osu.opr3_final_project.dtos.tmdb.TmdbMovieDetailsDTO;
+import cz.osu.opr3_final_project.dtos.tmdb.TmdbMovieDetailsDirectorDTO;
+import cz.osu.opr3_final_project.dtos.tmdb.TmdbMovieSearchDTO;
+import cz.osu.opr3_final_project.dtos.tmdb.TmdbSearchResultsDTO;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TmdbResponseParserTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final TmdbResponseParser parser = new TmdbResponseParser(objectMapper.getFactory());
+
+    @Test
+    void searchResultsMatchTreeBasedParsing() throws Exception {
+        byte[] body = searchResponse(20);
+
+        TmdbSearchResultsDTO<TmdbMovieSearchDTO> streamed = parser.parseSearchResults(new ByteArrayInputStream(body));
+
+        assertEquals(parseSearchResultsWithTree(body), streamed);
+        assertEquals(1234, streamed.totalResults());
+        assertNull(streamed.results().get(1).posterUrl());
+        assertNull(streamed.results().get(2).releaseYear());
+    }
+
+    @Test
+    void movieDetailsMatchTreeBasedParsing() throws Exception {
+        byte[] body = detailsResponse(true).getBytes(StandardCharsets.UTF_8);
+        byte[] bodyWithoutOptionalFields = detailsResponse(false).getBytes(StandardCharsets.UTF_8);
+
+        TmdbMovieDetailsDTO streamed = parser.parseMovieDetails(new ByteArrayInputStream(body));
+        TmdbMovieDetailsDTO streamedWithoutOptionalFields =
+                parser.parseMovieDetails(new ByteArrayInputStream(bodyWithoutOptionalFields));
+
+        assertEquals(parseMovieDetailsWithTree(body), streamed);
+        assertEquals(List.of("Action", "Science Fiction"), streamed.genre());
+        assertEquals(parseMovieDetailsWithTree(bodyWithoutOptionalFields), streamedWithoutOptionalFields);
+        assertNull(streamedWithoutOptionalFields.posterUrl());
+        assertNull(streamedWithoutOptionalFields.releaseDate());
+    }
+
+    @Test
+    void movieDetailsWithAppendedCreditsReadDirectorsAndTopBilledCast() throws Exception {
+        StringBuilder cast = new StringBuilder();
+        for (int i = 0; i < 15; i++) {
+            if (i > 0) {
+                cast.append(',');
+            }
+            cast.append("{\"id\":").append(100 + i).append(",\"name\":\"Actor ").append(i)
+                    .append("\",\"character\":\"Role ").append(i).append("\",\"order\":").append(i).append('}');
+        }
+        String body = "{\"id\":603,\"title\":\"The Matrix\",\"genres\":[],\"credits\":{\"cast\":[" + cast + "],"
+                + "\"crew\":[{\"id\":9339,\"name\":\"Lilly Wachowski\",\"job\":\"Director\"},"
+                + "{\"id\":1091,\"name\":\"Joel Silver\",\"job\":\"Producer\"},"
+                + "{\"id\":9340,\"name\":\"Lana Wachowski\",\"job\":\"Director\"}]}}";
+
+        TmdbMovieDetailsDTO details = parser.parseMovieDetails(
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(List.of(
+                new TmdbMovieDetailsDirectorDTO(9339L, "Lilly Wachowski"),
+                new TmdbMovieDetailsDirectorDTO(9340L, "Lana Wachowski")
+        ), details.directors());
+        assertEquals(TmdbResponseParser.TOP_BILLED_CAST, details.actors().size());
+        assertEquals(new TmdbMovieDetailsActorDTO(100L, "Actor 0", "Role 0"), details.actors().get(0));
+    }
+
+    @Test
+    void streamingAllocatesLessThanTreeBasedParsing() throws Exception {
+        byte[] body = searchResponse(20);
+        int iterations = 2_000;
+
+        for (int i = 0; i < iterations; i++) {
+            parseSearchResultsWithTree(body);
+            parser.parseSearchResults(new ByteArrayInputStream(body));
+        }
+
+        long treeBytes = allocatedBytes(() -> {
+            for (int i = 0; i < iterations; i++) {
+                parseSearchResultsWithTree(body);
+            }
+        });
+        long streamingBytes = allocatedBytes(() -> {
+            for (int i = 0; i < iterations; i++) {
+                parser.parseSearchResults(new ByteArrayInputStream(body));
+            }
+        });
+
+        assertTrue(streamingBytes < treeBytes,
+                "streaming parse allocated " + streamingBytes + " B, tree parse " + treeBytes + " B");
+    }
+
+    private interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+
+    private static long allocatedBytes(ThrowingRunnable work) throws Exception {
+        com.sun.management.ThreadMXBean threadBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+
+        long before = threadBean.getThreadAllocatedBytes(threadId);
+        work.run();
+        return threadBean.getThreadAllocatedBytes(threadId) - before;
+    }
+
+    // The previous TmdbService implementation: whole body as a String, then a JsonNode tree.
+    private TmdbSearchResultsDTO<TmdbMovieSearchDTO> parseSearchResultsWithTree(byte[] body) throws Exception {
+        JsonNode root = objectMapper.readTree(new String(body, StandardCharsets.UTF_8));
+
+        List<TmdbMovieSearchDTO> movies = new ArrayList<>();
+        JsonNode results = root.get("results");
+
+        if (results != null && results.isArray()) {
+            for (JsonNode movieNode : results) {
+                if (movieNode.has("id") && !movieNode.get("id").isNull()) {
+                    movies.add(new TmdbMovieSearchDTO(
+                            movieNode.get("id").asLong(),
+                            movieNode.has("title") ? movieNode.get("title").asText() : "",
+                            movieNode.has("release_date") ? movieNode.get("release_date").asText() : null,
+                            movieNode.has("poster_path") && !movieNode.get("poster_path").isNull()
+                                    ? movieNode.get("poster_path").asText() : null
+                    ));
+                }
+            }
+        }
+
+        int totalResults = root.has("total_results") ? root.get("total_results").asInt() : 0;
+        return new TmdbSearchResultsDTO<>(movies, totalResults);
+    }
+
+    private TmdbMovieDetailsDTO parseMovieDetailsWithTree(byte[] body) throws Exception {
+        JsonNode movieRoot = objectMapper.readTree(new String(body, StandardCharsets.UTF_8));
+
+        List<String> genres = new ArrayList<>();
+        if (movieRoot.has("genres") && movieRoot.get("genres").isArray()) {
+            for (JsonNode genreNode : movieRoot.get("genres")) {
+                if (genreNode.has("name")) {
+                    genres.add(genreNode.get("name").asText());
+                }
+            }
+        }
+
+        return new TmdbMovieDetailsDTO(
+                movieRoot.get("id").asLong(),
+                movieRoot.has("title") ? movieRoot.get("title").asText() : "",
+                movieRoot.has("release_date") ? movieRoot.get("release_date").asText() : null,
+                movieRoot.has("overview") ? movieRoot.get("overview").asText() : "",
+                genres,
+                null,
+                movieRoot.has("poster_path") && !movieRoot.get("poster_path").isNull()
+                        ? movieRoot.get("poster_path").asText() : null,
+                List.of(),
+                List.of(),
+                null,
+                null
+        );
+    }
+
+    private static byte[] searchResponse(int count) {
+        StringBuilder json = new StringBuilder("{\"page\":1,\"results\":[");
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"adult\":false,\"backdrop_path\":\"/backdrop").append(i).append(".jpg\",")
+                    .append("\"genre_ids\":[28,878],\"id\":").append(600 + i).append(',')
+                    .append("\"original_language\":\"en\",\"original_title\":\"The Matrix ").append(i).append("\",")
+                    .append("\"overview\":\"Set in the 22nd century, The Matrix tells the story of a computer hacker ")
+                    .append("who joins a group of underground insurgents fighting the vast and powerful computers ")
+                    .append("who now rule the earth.\",\"popularity\":83.").append(i).append(',');
+            if (i == 1) {
+                json.append("\"poster_path\":null,");
+            } else {
+                json.append("\"poster_path\":\"/poster").append(i).append(".jpg\",");
+            }
+            if (i != 2) {
+                json.append("\"release_date\":\"1999-03-3").append(i % 10).append("\",");
+            }
+            json.append("\"title\":\"The Matrix ").append(i).append("\",\"video\":false,")
+                    .append("\"vote_average\":8.2,\"vote_count\":26000}");
+        }
+        json.append("],\"total_pages\":62,\"total_results\":1234}");
+        return json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String detailsResponse(boolean withOptionalFields) {
+        return "{\"adult\":false,\"belongs_to_collection\":{\"id\":2344,\"name\":\"The Matrix Collection\"},"
+                + "\"budget\":63000000,\"genres\":[{\"id\":28,\"name\":\"Action\"},{\"id\":878,\"name\":\"Science Fiction\"}],"
+                + "\"id\":603,\"overview\":\"Set in the 22nd century...\","
+                + (withOptionalFields ? "\"poster_path\":\"/poster.jpg\",\"release_date\":\"1999-03-30\"," : "\"poster_path\":null,")
+                + "\"production_companies\":[{\"id\":79,\"name\":\"Village Roadshow Pictures\"}],"
+                + "\"title\":\"The Matrix\",\"vote_average\":8.2}";
+    }
+}
@@ -0,0 +1,78 @@
+package cz.osu.opr3_final_project.services;
+
+import cz.osu.opr3_final_project.dtos.TrendingMovieDTO;
+import cz.osu.opr3_final_project.logging.MovieActivityEvent;
+import cz.osu.opr3_final_project.model.entities.Movie;
+import cz.osu.opr3_final_project.repositories.MovieRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class TrendingServiceTest {
+
+    private static final long MOVIE_ID = 603L;
+    private static final long OTHER_MOVIE_ID = 604L;
+    private static final long USER_ID = 7L;
+
+    private final MovieRepository movieRepository = mock(MovieRepository.class);
+    private final TrendingService trendingService = new TrendingService(
+            mock(JdbcTemplate.class), movieRepository, Duration.ofHours(24), 24, 10, 1024, 4, 1, 2);
+
+    @BeforeEach
+    void stubMovies() {
+        when(movieRepository.findAllById(anyIterable())).thenAnswer(invocation -> {
+            List<Movie> movies = new ArrayList<>();
+            for (Long id : invocation.<Iterable<Long>>getArgument(0)) {
+                Movie movie = new Movie();
+                movie.setId(id);
+                movies.add(movie);
+            }
+            return movies;
+        });
+    }
+
+    @Test
+    void togglingOneLikeDoesNotRaiseTheScore() {
+        for (int i = 0; i < 50; i++) {
+            publish(MOVIE_ID, MovieActivityEvent.Type.LIKE, USER_ID);
+            publish(MOVIE_ID, MovieActivityEvent.Type.UNLIKE, USER_ID);
+        }
+        publish(MOVIE_ID, MovieActivityEvent.Type.LIKE, USER_ID);
+        publish(MOVIE_ID, MovieActivityEvent.Type.LIKE, USER_ID);
+        publish(OTHER_MOVIE_ID, MovieActivityEvent.Type.LIKE, USER_ID);
+        publish(OTHER_MOVIE_ID, MovieActivityEvent.Type.LIKE, USER_ID + 1);
+
+        assertEquals(List.of(OTHER_MOVIE_ID, MOVIE_ID), trendingKeys());
+        assertEquals(1, trendingService.getTrendingMovies(10).get(1).score());
+
+        publish(MOVIE_ID, MovieActivityEvent.Type.UNLIKE, USER_ID);
+        assertEquals(List.of(OTHER_MOVIE_ID), trendingKeys());
+    }
+
+    @Test
+    void deletedCommentIsWithdrawnOnce() {
+        publish(MOVIE_ID, MovieActivityEvent.Type.COMMENT, 1L);
+        publish(MOVIE_ID, MovieActivityEvent.Type.COMMENT, 2L);
+        publish(MOVIE_ID, MovieActivityEvent.Type.COMMENT_DELETED, 1L);
+        publish(MOVIE_ID, MovieActivityEvent.Type.COMMENT_DELETED, 1L);
+
+        assertEquals(2, trendingService.getTrendingMovies(10).get(0).score());
+    }
+
+    private void publish(long movieId, MovieActivityEvent.Type type, long sourceId) {
+        trendingService.onMovieActivity(new MovieActivityEvent(movieId, type, sourceId, Instant.now()));
+    }
+
+    private List<Long> trendingKeys() {
+        return trendingService.getTrendingMovies(10).stream().map(TrendingMovieDTO::id).toList();
+    }
+}
@@ -0,0 +1,106 @@
+package cz.osu.opr3_final_project.services;
+
+import cz.osu.opr3_final_project.dtos.CommentDTO;
+import cz.osu.opr3_final_project.dtos.CommentPageDTO;
+import cz.osu.opr3_final_project.dtos.FavoriteMoviePageDTO;
+import cz.osu.opr3_final_project.dtos.MovieSummaryDTO;
+import cz.osu.opr3_final_project.dtos.UserProfileDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class UserProfileServiceTest {
+
+    private static final long FIRST_MOVIE_ID = 999_024_000L;
+    private static final int MOVIES = 7;
+    private static final String USERNAME = "user-profile-test";
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long userId;
+
+    @BeforeEach
+    void createFixtures() {
+        cleanUp();
+        userId = jdbcTemplate.queryForObject(
+                "INSERT INTO users (username, password) VALUES (?, 'password') RETURNING id", Long.class, USERNAME);
+        for (int i = 0; i < MOVIES; i++) {
+            long movieId = FIRST_MOVIE_ID + i;
+            jdbcTemplate.update("INSERT INTO movies (id, title, release_date) VALUES (?, ?, ?)",
+                    movieId, "Profile Movie " + i, i % 2 == 0 ? "2001-05-0" + (i + 1) : "");
+            // Every second pair of likes shares a timestamp, so the movie id has to break ties.
+            jdbcTemplate.update("""
+                    INSERT INTO users_favourite_movies (user_id, movie_id, liked_at)
+                    VALUES (?, ?, TIMESTAMP '2025-01-01 00:00:00' + ? * INTERVAL '1 minute')
+                    """, userId, movieId, i / 2);
+            jdbcTemplate.update("INSERT INTO comments (movie_id, user_id, content) VALUES (?, ?, ?)",
+                    movieId, userId, "comment " + i);
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM movies WHERE id BETWEEN ? AND ?", FIRST_MOVIE_ID, FIRST_MOVIE_ID + MOVIES);
+        jdbcTemplate.update("DELETE FROM users WHERE username = ?", USERNAME);
+    }
+
+    @Test
+    void profileHasCountsAndFirstPages() {
+        UserProfileDTO profile = userService.getUserProfile(userId);
+
+        assertEquals(USERNAME, profile.username());
+        assertEquals(MOVIES, profile.totalFavorites());
+        assertEquals(MOVIES, profile.totalComments());
+        assertEquals(FIRST_MOVIE_ID + MOVIES - 1, profile.favoriteMovies().getFirst().id());
+        assertEquals(2001, profile.favoriteMovies().getFirst().releaseYear());
+    }
+
+    @Test
+    void favoritePagesCoverAllLikesOnceNewestFirst() {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            FavoriteMoviePageDTO page = userService.getFavoriteMoviePage(userId, cursor, 3);
+            assertEquals(MOVIES, page.totalCount());
+            page.movies().stream().map(MovieSummaryDTO::id).forEach(ids::add);
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        List<Long> expected = new ArrayList<>();
+        for (int i = MOVIES - 1; i >= 0; i--) {
+            expected.add(FIRST_MOVIE_ID + i);
+        }
+        assertEquals(expected, ids);
+    }
+
+    @Test
+    void commentPagesCoverAllCommentsOnce() {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            CommentPageDTO page = userService.getCommentPage(userId, cursor, 2);
+            page.comments().stream().map(CommentDTO::id).forEach(ids::add);
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        assertEquals(MOVIES, ids.size());
+        assertEquals(MOVIES, ids.stream().distinct().count());
+    }
+
+    @Test
+    void unknownUserIsReported() {
+        assertThrows(RuntimeException.class, () -> userService.getUserProfile(-1L));
+    }
+}
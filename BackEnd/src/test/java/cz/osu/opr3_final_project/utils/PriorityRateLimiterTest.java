@@ -0,0 +1,44 @@
+package cz.osu.opr3_final_project.utils;
+
+import cz.osu.opr3_final_project.utils.PriorityRateLimiter.Priority;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PriorityRateLimiterTest {
+
+    @Test
+    void allowsBurstThenRejectsWithoutWaiting() throws Exception {
+        PriorityRateLimiter rateLimiter = new PriorityRateLimiter(1, 3);
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(rateLimiter.tryAcquire(Priority.SEARCH, Duration.ZERO));
+        }
+        assertFalse(rateLimiter.tryAcquire(Priority.SEARCH, Duration.ZERO));
+    }
+
+    @Test
+    void waitingInteractiveCallerOutranksLowerLanes() throws Exception {
+        PriorityRateLimiter rateLimiter = new PriorityRateLimiter(5, 1);
+        assertTrue(rateLimiter.tryAcquire(Priority.BACKGROUND, Duration.ZERO));
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Boolean> interactive = executor.submit(
+                    () -> rateLimiter.tryAcquire(Priority.INTERACTIVE, Duration.ofSeconds(5)));
+            while (rateLimiter.getWaiting(Priority.INTERACTIVE) == 0) {
+                Thread.onSpinWait();
+            }
+
+            // The next token (in ~200 ms) belongs to the waiting interactive caller.
+            assertFalse(rateLimiter.tryAcquire(Priority.BACKGROUND, Duration.ofMillis(150)));
+            assertTrue(interactive.get(5, TimeUnit.SECONDS));
+            assertEquals(0, rateLimiter.getWaiting(Priority.INTERACTIVE));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package cz.osu.opr3_final_project.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchQueryNormalizerTest {
+
+    @Test
+    void normalizeFoldsCaseWhitespaceAndAccents() {
+        assertEquals("matrix", SearchQueryNormalizer.normalize("Matrix "));
+        assertEquals("the matrix", SearchQueryNormalizer.normalize("  The\tMatrix"));
+        assertEquals("amelie", SearchQueryNormalizer.normalize("Amélie"));
+        assertEquals("", SearchQueryNormalizer.normalize(null));
+    }
+
+    @Test
+    void matchesTitleRequiresEveryQueryWordAsWordPrefix() {
+        assertTrue(SearchQueryNormalizer.matchesTitle("matri", "The Matrix Reloaded"));
+        assertTrue(SearchQueryNormalizer.matchesTitle("spider-man", "Spider-Man: No Way Home"));
+        assertTrue(SearchQueryNormalizer.matchesTitle("amel", "Le Fabuleux Destin d'Amélie Poulain"));
+        assertFalse(SearchQueryNormalizer.matchesTitle("atrix", "The Matrix"));
+        assertFalse(SearchQueryNormalizer.matchesTitle("matrix revolutions", "The Matrix Reloaded"));
+    }
+}
@@ -0,0 +1,85 @@
+package cz.osu.opr3_final_project.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlidingWindowTopKTest {
+
+    private static final long HOUR = Duration.ofHours(1).toMillis();
+
+    private final AtomicLong now = new AtomicLong(1_000 * HOUR);
+
+    private SlidingWindowTopK newTopK(int capacity) {
+        return new SlidingWindowTopK(Duration.ofHours(24), 24, capacity, 1024, 4, now::get);
+    }
+
+    @Test
+    void reportsHeaviestKeysInOrder() {
+        SlidingWindowTopK topK = newTopK(10);
+        for (long key = 1; key <= 5; key++) {
+            for (int i = 0; i < key * 10; i++) {
+                topK.add(key, 1);
+            }
+        }
+
+        List<SlidingWindowTopK.Entry> top = topK.top(3);
+
+        assertEquals(List.of(5L, 4L, 3L), top.stream().map(SlidingWindowTopK.Entry::key).toList());
+        assertEquals(50, top.get(0).count());
+    }
+
+    @Test
+    void eventsLeaveTheWindow() {
+        SlidingWindowTopK topK = newTopK(10);
+        topK.add(1, 100);
+        now.addAndGet(12 * HOUR);
+        topK.add(2, 10);
+
+        assertEquals(1L, topK.top(1).get(0).key());
+
+        now.addAndGet(13 * HOUR);
+
+        assertEquals(List.of(new SlidingWindowTopK.Entry(2, 10)), topK.top(10));
+    }
+
+    @Test
+    void historicalEventsAreBucketedByTheirTimestamp() {
+        SlidingWindowTopK topK = newTopK(10);
+        topK.add(1, 5, now.get() - 30 * HOUR);
+        topK.add(2, 5, now.get() - 23 * HOUR);
+
+        assertEquals(List.of(new SlidingWindowTopK.Entry(2, 5)), topK.top(10));
+
+        now.addAndGet(2 * HOUR);
+        assertTrue(topK.top(10).isEmpty());
+    }
+
+    @Test
+    void withdrawnEventsLowerTheCount() {
+        SlidingWindowTopK topK = newTopK(10);
+        long likedAt = now.get() - 2 * HOUR;
+        topK.add(1, 3, likedAt);
+        topK.add(2, 2);
+
+        topK.add(1, -2, likedAt);
+        assertEquals(List.of(new SlidingWindowTopK.Entry(2, 2), new SlidingWindowTopK.Entry(1, 1)), topK.top(10));
+
+        topK.add(1, -1, likedAt);
+        assertEquals(List.of(new SlidingWindowTopK.Entry(2, 2)), topK.top(10));
+    }
+
+    @Test
+    void keepsOnlyCapacityHeaviestCandidates() {
+        SlidingWindowTopK topK = newTopK(3);
+        for (long key = 1; key <= 100; key++) {
+            topK.add(key, key);
+        }
+
+        assertEquals(List.of(100L, 99L, 98L), topK.top(10).stream().map(SlidingWindowTopK.Entry::key).toList());
+    }
+}
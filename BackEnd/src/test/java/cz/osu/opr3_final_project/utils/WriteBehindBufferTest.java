@@ -0,0 +1,184 @@
+package cz.osu.opr3_final_project.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WriteBehindBufferTest {
+
+    private final Map<String, Boolean> stored = new HashMap<>();
+    private final List<Map<String, Boolean>> batches = new ArrayList<>();
+    private final Map<String, RuntimeException> dropped = new HashMap<>();
+
+    private WriteBehindBuffer<String> newBuffer(int flushThreshold) {
+        return newBuffer(batch -> {
+            batches.add(Map.copyOf(batch));
+            stored.putAll(batch);
+        }, flushThreshold);
+    }
+
+    private WriteBehindBuffer<String> newBuffer(Consumer<Map<String, Boolean>> writer, int flushThreshold) {
+        return new WriteBehindBuffer<>(writer, flushThreshold, Runnable::run, 3, dropped::put);
+    }
+
+    private boolean storedState(String key) {
+        return stored.getOrDefault(key, false);
+    }
+
+    @Test
+    void opposingTogglesCancelOut() {
+        WriteBehindBuffer<String> buffer = newBuffer(100);
+
+        assertTrue(buffer.submit("a", true, () -> storedState("a")));
+        assertTrue(buffer.submit("a", false, () -> storedState("a")));
+        assertTrue(buffer.submit("a", true, () -> storedState("a")));
+        assertFalse(buffer.submit("a", true, () -> storedState("a")));
+        assertTrue(buffer.submit("b", true, () -> storedState("b")));
+        assertTrue(buffer.submit("b", false, () -> storedState("b")));
+
+        assertEquals(1, buffer.flush());
+        assertEquals(List.of(Map.of("a", true)), batches);
+    }
+
+    @Test
+    void changeMatchingStoredStateIsNotBuffered() {
+        stored.put("a", true);
+        WriteBehindBuffer<String> buffer = newBuffer(100);
+
+        assertFalse(buffer.submit("a", true, () -> storedState("a")));
+        assertTrue(buffer.submit("a", false, () -> storedState("a")));
+        assertTrue(buffer.submit("a", true, () -> storedState("a")));
+
+        assertNull(buffer.bufferedState("a"));
+        assertEquals(0, buffer.flush());
+    }
+
+    @Test
+    void readsSeeBufferedChangesUntilWritten() {
+        WriteBehindBuffer<String> buffer = newBuffer(100);
+
+        buffer.submit("a", true, () -> storedState("a"));
+        assertEquals(true, buffer.bufferedState("a"));
+
+        buffer.flush();
+        assertNull(buffer.bufferedState("a"));
+        assertTrue(storedState("a"));
+    }
+
+    @Test
+    void flushesWhenThresholdIsReached() {
+        WriteBehindBuffer<String> buffer = newBuffer(3);
+
+        buffer.submit("a", true, () -> storedState("a"));
+        buffer.submit("b", true, () -> storedState("b"));
+        assertTrue(batches.isEmpty());
+
+        buffer.submit("c", true, () -> storedState("c"));
+        assertEquals(1, batches.size());
+        assertEquals(0, buffer.size());
+    }
+
+    @Test
+    void failedBatchIsKeptForNextFlush() {
+        boolean[] fail = {true};
+        WriteBehindBuffer<String> buffer = newBuffer(batch -> {
+            if (fail[0]) {
+                throw new IllegalStateException("database unavailable");
+            }
+            stored.putAll(batch);
+        }, 100);
+
+        buffer.submit("a", true, () -> storedState("a"));
+        buffer.submit("b", true, () -> storedState("b"));
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, buffer.flush());
+        }
+        assertEquals(true, buffer.bufferedState("a"));
+        assertEquals(true, buffer.bufferedState("b"));
+
+        fail[0] = false;
+        assertEquals(2, buffer.flush());
+        assertTrue(storedState("a"));
+        assertTrue(storedState("b"));
+        assertTrue(dropped.isEmpty());
+    }
+
+    @Test
+    void poisonChangeDoesNotHoldBackOthersAndIsDropped() {
+        WriteBehindBuffer<String> buffer = newBuffer(batch -> {
+            if (batch.containsKey("poison")) {
+                throw new IllegalStateException("foreign key violation");
+            }
+            stored.putAll(batch);
+        }, 100);
+
+        buffer.submit("a", true, () -> storedState("a"));
+        buffer.submit("poison", true, () -> storedState("poison"));
+        buffer.submit("b", true, () -> storedState("b"));
+
+        assertEquals(2, buffer.flush());
+        assertTrue(storedState("a"));
+        assertTrue(storedState("b"));
+        assertEquals(true, buffer.bufferedState("poison"));
+        assertTrue(dropped.isEmpty());
+
+        // Tried first and failing alone, the poison change looks like an outage and goes to the back.
+        buffer.submit("c", true, () -> storedState("c"));
+        assertEquals(0, buffer.flush());
+        assertEquals(1, buffer.flush());
+        assertTrue(storedState("c"));
+        assertEquals(true, buffer.bufferedState("poison"));
+
+        buffer.submit("d", true, () -> storedState("d"));
+        assertEquals(0, buffer.flush());
+        assertEquals(1, buffer.flush());
+        assertTrue(storedState("d"));
+        assertNull(buffer.bufferedState("poison"));
+        assertEquals(0, buffer.size());
+        assertEquals(Set.of("poison"), dropped.keySet());
+        assertFalse(storedState("poison"));
+    }
+
+    @Test
+    void toggleDuringWriteIsAppliedByNextFlush() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Map<String, Boolean> database = new ConcurrentHashMap<>();
+        WriteBehindBuffer<String> buffer = newBuffer(batch -> {
+            writing.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            database.putAll(batch);
+        }, 100);
+
+        buffer.submit("a", true, () -> database.getOrDefault("a", false));
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Integer> firstFlush = executor.submit(buffer::flush);
+            writing.await();
+
+            // The like is being written; the stored state is still "not liked".
+            assertTrue(buffer.submit("a", false, () -> database.getOrDefault("a", false)));
+            assertEquals(false, buffer.bufferedState("a"));
+
+            release.countDown();
+            assertEquals(1, firstFlush.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, buffer.flush());
+        assertEquals(false, database.get("a"));
+    }
+}
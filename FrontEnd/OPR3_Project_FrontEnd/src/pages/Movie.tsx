@@ -74,8 +74,8 @@ const Movie = () => {
 
         return {
           ...prev,
-          comments: [...currentComments, newCommentData],
-          totalComments: currentComments.length + 1
+          comments: [newCommentData, ...currentComments],
+          commentCount: prev.commentCount + 1
         }
       })
 
@@ -101,7 +101,7 @@ const Movie = () => {
         return {
           ...prev,
           comments: updatedComments,
-          totalComments: updatedComments.length
+          commentCount: prev.commentCount - (currentComments.length - updatedComments.length)
         }
       })
     } catch (err) {
@@ -109,6 +109,31 @@ const Movie = () => {
     }
   }
 
+  const handleLoadMoreComments = async () => {
+    if (!movieId || !movie?.nextCommentsCursor) return
+    setIsWaiting(true)
+
+    try {
+      const page = await api.getMovieComments(parseInt(movieId), movie.nextCommentsCursor)
+
+      setMovie((prev) => {
+        if (!prev) return prev
+
+        const knownIds = new Set((prev.comments || []).map((comment) => comment.id))
+
+        return {
+          ...prev,
+          comments: [...(prev.comments || []), ...page.comments.filter((comment) => !knownIds.has(comment.id))],
+          commentCount: page.totalCount,
+          nextCommentsCursor: page.nextCursor
+        }
+      })
+    } catch (err) {
+      console.error('Failed to load more comments:', err)
+    }
+    setIsWaiting(false)
+  }
+
   if (loading) {
     return (
       <div className='min-h-screen bg-light dark:bg-dark-bg flex items-center justify-center'>
@@ -125,7 +150,7 @@ const Movie = () => {
     )
   }
 
-  const posterUrl = movie.posterUrl ? `https://image.tmdb.org/t/p/w500${movie.posterUrl}` : moviePlaceholderImage
+  const posterUrl = api.getTmdbImageUrl(movie.posterUrl, 'w500') || moviePlaceholderImage
 
   return (
     <div className='min-h-screen bg-light dark:bg-dark-bg'>
@@ -359,6 +384,20 @@ const Movie = () => {
                     </button>
                   </div>
                 )}
+
+                {movie.nextCommentsCursor && commentsPagination.currentPage === commentsPagination.totalPages && (
+                  <div className='flex justify-center mt-4'>
+                    <button
+                      onClick={handleLoadMoreComments}
+                      disabled={isWaiting}
+                      className='px-4 py-2 rounded-lg bg-white dark:bg-dark-card border border-primary-dark/10 dark:border-dark-text/10
+                     text-primary-dark dark:text-dark-text hover:bg-secondary-green/10 transition-colors
+                     disabled:opacity-50 disabled:cursor-not-allowed'
+                    >
+                      Load older comments ({movie.commentCount - movie.comments.length} more)
+                    </button>
+                  </div>
+                )}
               </>
             ) : (
               <p className='text-primary-dark/70 dark:text-dark-text/70 text-center py-8'>
@@ -14,6 +14,7 @@ const Profile = () => {
   const [profile, setProfile] = useState<UserProfile | null>(null)
   const [loading, setLoading] = useState(true)
   const [error, setError] = useState<string>('')
+  const [isLoadingMore, setIsLoadingMore] = useState(false)
   const navigate = useNavigate()
 
   const usernameEdit = useUsernameEdit(profile, (authResponse, newUsername) => {
@@ -60,7 +61,7 @@ const Profile = () => {
         return {
           ...prev,
           favoriteMovies: updatedFavorites,
-          totalFavorites: updatedFavorites.length
+          totalFavorites: prev.totalFavorites - (prev.favoriteMovies.length - updatedFavorites.length)
         }
       })
 
@@ -84,7 +85,7 @@ const Profile = () => {
         return {
           ...prev,
           comments: updatedComments,
-          totalComments: updatedComments.length
+          totalComments: prev.totalComments - (prev.comments.length - updatedComments.length)
         }
       })
 
@@ -94,6 +95,56 @@ const Profile = () => {
     }
   }
 
+  const handleLoadMoreFavorites = async () => {
+    if (!profile?.nextFavoritesCursor) return
+    setIsLoadingMore(true)
+
+    try {
+      const page = await api.getProfileFavorites(profile.nextFavoritesCursor)
+
+      setProfile((prev) => {
+        if (!prev) return prev
+
+        const knownIds = new Set(prev.favoriteMovies.map((movie) => movie.id))
+
+        return {
+          ...prev,
+          favoriteMovies: [...prev.favoriteMovies, ...page.movies.filter((movie) => !knownIds.has(movie.id))],
+          totalFavorites: page.totalCount,
+          nextFavoritesCursor: page.nextCursor
+        }
+      })
+    } catch (err) {
+      console.error('Failed to load more favorite movies:', err)
+    }
+    setIsLoadingMore(false)
+  }
+
+  const handleLoadMoreComments = async () => {
+    if (!profile?.nextCommentsCursor) return
+    setIsLoadingMore(true)
+
+    try {
+      const page = await api.getProfileComments(profile.nextCommentsCursor)
+
+      setProfile((prev) => {
+        if (!prev) return prev
+
+        const knownIds = new Set(prev.comments.map((comment) => comment.id))
+
+        return {
+          ...prev,
+          comments: [...prev.comments, ...page.comments.filter((comment) => !knownIds.has(comment.id))],
+          totalComments: page.totalCount,
+          nextCommentsCursor: page.nextCursor
+        }
+      })
+    } catch (err) {
+      console.error('Failed to load more comments:', err)
+    }
+    setIsLoadingMore(false)
+  }
+
   if (loading) {
     return (
       <div className='min-h-screen bg-light dark:bg-dark-bg flex items-center justify-center'>
@@ -335,6 +386,20 @@ const Profile = () => {
                     </button>
                   </div>
                 )}
+
+                {profile.nextFavoritesCursor && moviesPagination.currentPage === moviesPagination.totalPages && (
+                  <div className='flex justify-center mt-4'>
+                    <button
+                      onClick={handleLoadMoreFavorites}
+                      disabled={isLoadingMore}
+                      className='px-4 py-2 rounded-lg bg-light dark:bg-dark-bg
+                               text-primary-dark dark:text-dark-text hover:bg-secondary-green/20 transition-colors
+                               disabled:opacity-50 disabled:cursor-not-allowed'
+                    >
+                      Load more favorites ({profile.totalFavorites - profile.favoriteMovies.length} more)
+                    </button>
+                  </div>
+                )}
               </>
             )}
           </div>
@@ -486,6 +551,20 @@ const Profile = () => {
                     </button>
                   </div>
                 )}
+
+                {profile.nextCommentsCursor && commentsPagination.currentPage === commentsPagination.totalPages && (
+                  <div className='flex justify-center mt-4'>
+                    <button
+                      onClick={handleLoadMoreComments}
+                      disabled={isLoadingMore}
+                      className='px-4 py-2 rounded-lg bg-light dark:bg-dark-bg
+                               text-primary-dark dark:text-dark-text hover:bg-secondary-green/20 transition-colors
+                               disabled:opacity-50 disabled:cursor-not-allowed'
+                    >
+                      Load older comments ({profile.totalComments - profile.comments.length} more)
+                    </button>
+                  </div>
+                )}
               </>
             )}
           </div>
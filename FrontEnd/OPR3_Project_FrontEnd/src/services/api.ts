@@ -1,6 +1,6 @@
 import type { AuthResponse, LoginRequest, SignupRequest, UserProfile } from '../types/types.ts'
 import type { TmdbSearchResults } from '../types/tmdb'
-import type { MovieSummary, TmdbMovie, Comment } from '../types/movie.ts'
+import type { MovieSummary, TmdbMovie, Comment, CommentPage, FavoriteMoviePage } from '../types/movie.ts'
 
 const API_BASE_URL = 'http://localhost:8080'
 const REQUEST_TIMEOUT = 10000
@@ -106,6 +106,34 @@ export const api = {
     return response.json()
   },
 
+  getProfileFavorites: async (cursor: string): Promise<FavoriteMoviePage> => {
+    const response = await fetchWithTimeout(`${API_BASE_URL}/profile/favorites?cursor=${encodeURIComponent(cursor)}`, {
+      method: 'GET',
+      headers: getAuthHeaders()
+    })
+
+    if (!response.ok) {
+      const errorText = await response.text()
+      throw new Error(errorText || 'Failed to fetch favorite movies')
+    }
+
+    return response.json()
+  },
+
+  getProfileComments: async (cursor: string): Promise<CommentPage> => {
+    const response = await fetchWithTimeout(`${API_BASE_URL}/profile/comments?cursor=${encodeURIComponent(cursor)}`, {
+      method: 'GET',
+      headers: getAuthHeaders()
+    })
+
+    if (!response.ok) {
+      const errorText = await response.text()
+      throw new Error(errorText || 'Failed to fetch comments')
+    }
+
+    return response.json()
+  },
+
   updateUsername: async (newUsername: string): Promise<AuthResponse> => {
     const response = await fetch(`${API_BASE_URL}/profile/username`, {
       method: 'PUT',
@@ -136,7 +164,7 @@ export const api = {
 
   getTmdbImageUrl: (path: string | null, size: 'w92' | 'w185' | 'w500' | 'original' = 'w185'): string | null => {
     if (!path) return null
-    return `https://image.tmdb.org/t/p/${size}${path}`
+    return `${API_BASE_URL}/api/poster/${size}${path}`
   },
 
   getMovieDetails: async (movieId: number): Promise<TmdbMovie> => {
@@ -153,6 +181,23 @@ export const api = {
     return response.json()
   },
 
+  getMovieComments: async (movieId: number, cursor: string): Promise<CommentPage> => {
+    const response = await fetchWithTimeout(
+      `${API_BASE_URL}/api/movie/${movieId}/comments?cursor=${encodeURIComponent(cursor)}`,
+      {
+        method: 'GET',
+        headers: getAuthHeaders()
+      }
+    )
+
+    if (!response.ok) {
+      const errorText = await response.text()
+      throw new Error(errorText || 'Failed to fetch comments')
+    }
+
+    return response.json()
+  },
+
   isMovieLikedByUser: async (movieId: number, userId: number): Promise<boolean> => {
     const response = await fetchWithTimeout(`${API_BASE_URL}/api/movie/${movieId}/isLiked?userId=${userId}`, {
       method: 'GET',
@@ -11,17 +11,19 @@ export interface TmdbMovie {
   rating: number
   posterUrl: string | null
   comments: Comment[]
+  commentCount: number
+  nextCommentsCursor: string | null
 }
 
 export interface TmdbMovieDetailsActors {
   id: number
   name: string
+  character: string | null
 }
 
 export interface TmdbMovieDetailsDirectors {
   id: number
   name: string
-  character: string
 }
 
 export interface MovieSummary {
@@ -31,6 +33,18 @@ export interface MovieSummary {
   posterUrl: string
 }
 
+export interface CommentPage {
+  comments: Comment[]
+  totalCount: number
+  nextCursor: string | null
+}
+
+export interface FavoriteMoviePage {
+  movies: MovieSummary[]
+  totalCount: number
+  nextCursor: string | null
+}
+
 export interface Comment {
   id: number
   username: string
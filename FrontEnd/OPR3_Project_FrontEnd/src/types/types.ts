@@ -27,5 +27,7 @@ export interface UserProfile {
   totalFavorites: number
   totalComments: number
   favoriteMovies: MovieSummary[]
+  nextFavoritesCursor: string | null
   comments: Comment[]
+  nextCommentsCursor: string | null
 }